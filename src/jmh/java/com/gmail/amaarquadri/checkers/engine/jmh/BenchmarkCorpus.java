@@ -0,0 +1,125 @@
+package com.gmail.amaarquadri.checkers.engine.jmh;
+
+import com.gmail.amaarquadri.checkers.engine.GameRules;
+import com.gmail.amaarquadri.checkers.engine.MoveGenerator;
+import com.gmail.amaarquadri.checkers.engine.Position;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * The fixed set of Positions that every benchmark runs over, for one of the 8 GameRules and one phase of the game.
+ * The Positions are made from a fixed seed, so every run (and every version of the engine) measures the same ones.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkCorpus {
+    /**
+     * The number of Positions in the corpus.
+     */
+    public static final int SIZE = 64;
+
+    /**
+     * The seed used to create the Positions.
+     */
+    private static final long SEED = 20161219L;
+
+    /**
+     * The phase of the game: OPENING (up to 8 random moves from the initial board), MIDDLEGAME (20 to 40 random moves),
+     * or KING_ENDGAME (2 to 4 kings of each colour on random squares).
+     */
+    @Param({"OPENING", "MIDDLEGAME", "KING_ENDGAME"})
+    public String phase;
+
+    /**
+     * The index of the GameRules (see GameRules.getIndex()).
+     */
+    @Param({"0", "1", "2", "3", "4", "5", "6", "7"})
+    public int rulesIndex;
+
+    /**
+     * The rules of the game.
+     */
+    public GameRules rules;
+
+    /**
+     * Generates the moves of every Position.
+     */
+    public MoveGenerator moveGenerator;
+
+    /**
+     * The Positions. Benchmarks that change them must restore them.
+     */
+    public Position[] positions;
+
+    /**
+     * Whether or not it is red's turn on each Position.
+     */
+    public boolean[] isRedTurn;
+
+    /**
+     * The serialized board of each Position.
+     */
+    public String[] serializations;
+
+
+    /**
+     * Creates the Positions.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        rules = GameRules.fromIndex(rulesIndex);
+        moveGenerator = MoveGenerator.forRules(rules);
+        positions = new Position[SIZE];
+        isRedTurn = new boolean[SIZE];
+        serializations = new String[SIZE];
+        Random random = new Random(SEED);
+        long[] moves = new long[MoveGenerator.MAX_MOVES];
+        int count = 0;
+        while (count < SIZE) {
+            Position position;
+            boolean isPositionRedTurn;
+            if (phase.equals("KING_ENDGAME")) {
+                int red = getRandomSquares(random, 2 + random.nextInt(3), 0);
+                int white = getRandomSquares(random, 2 + random.nextInt(3), red);
+                position = new Position(red, white, red | white);
+                isPositionRedTurn = random.nextBoolean();
+            } else {
+                position = Position.fromSerialization(Position.INITIAL_SERIALIZATION);
+                isPositionRedTurn = true;
+                int plies = phase.equals("OPENING") ? random.nextInt(9) : 20 + random.nextInt(21);
+                for (int ply = 0; ply < plies; ply++) {
+                    int moveCount = moveGenerator.generateMoves(isPositionRedTurn, position, moves);
+                    if (moveCount == 0) break;
+                    position.make(moves[random.nextInt(moveCount)]);
+                    isPositionRedTurn = !isPositionRedTurn;
+                }
+            }
+            //finished games have nothing to measure
+            if (!moveGenerator.canMove(isPositionRedTurn, position)) continue;
+            positions[count] = position;
+            isRedTurn[count] = isPositionRedTurn;
+            serializations[count] = position.getSerialization(isPositionRedTurn);
+            count++;
+        }
+    }
+
+    /**
+     * @param random The source of randomness.
+     * @param count The number of squares to pick.
+     * @param occupied A mask of the squares that cannot be picked.
+     * @return A mask of count random squares that are not in occupied.
+     */
+    private static int getRandomSquares(Random random, int count, int occupied) {
+        int squares = 0;
+        while (Integer.bitCount(squares) < count) {
+            int bit = 1 << random.nextInt(32);
+            if ((occupied & bit) == 0) squares |= bit;
+        }
+        return squares;
+    }
+}
@@ -0,0 +1,38 @@
+package com.gmail.amaarquadri.checkers.engine.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks of this package with the GC profiler, which reports the allocation rate and the bytes allocated
+ * per invocation next to the time. Only the benchmarks that return new Objects (paths and serializations) should allocate.
+ * Usage: BenchmarkRunner [regex]
+ * where the optional regex picks which benchmarks to run (for example MoveGenerator or getValue), and defaults to all of them.
+ */
+public final class BenchmarkRunner {
+    /**
+     * Prevents BenchmarkRunner initialization.
+     */
+    private BenchmarkRunner() {
+        throw new AssertionError();
+    }
+
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args The optional regex of the benchmarks to run.
+     * @throws RunnerException If a benchmark fails.
+     */
+    public static void main(String[] args) throws RunnerException {
+        String include = BenchmarkRunner.class.getPackage().getName() + "." + (args.length > 0 ? ".*" + args[0] + ".*" : ".*");
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
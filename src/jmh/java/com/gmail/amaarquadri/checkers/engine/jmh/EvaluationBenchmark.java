@@ -0,0 +1,66 @@
+package com.gmail.amaarquadri.checkers.engine.jmh;
+
+import com.gmail.amaarquadri.checkers.engine.PatternEvaluator;
+import com.gmail.amaarquadri.checkers.engine.Position;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the static evaluation. Every invocation runs over the whole BenchmarkCorpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationBenchmark {
+    /**
+     * The pattern evaluation with the default weights, which cost the same to look up as tuned ones.
+     */
+    private PatternEvaluator patternEvaluator;
+
+
+    /**
+     * Creates the PatternEvaluator.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        patternEvaluator = PatternEvaluator.createDefault();
+    }
+
+    /**
+     * Evaluates every Position with the MaterialEvaluator, which the Position keeps up to date as moves are made.
+     *
+     * @param corpus The Positions.
+     * @param blackhole Keeps the results from being optimized away.
+     */
+    @Benchmark
+    public void getRawValue(BenchmarkCorpus corpus, Blackhole blackhole) {
+        for (Position position : corpus.positions) blackhole.consume(position.getRawValue());
+    }
+
+    /**
+     * Evaluates every Position with the PatternEvaluator.
+     *
+     * @param corpus The Positions.
+     * @param blackhole Keeps the results from being optimized away.
+     */
+    @Benchmark
+    public void evaluatePatterns(BenchmarkCorpus corpus, Blackhole blackhole) {
+        for (Position position : corpus.positions) blackhole.consume(patternEvaluator.evaluate(position));
+    }
+}
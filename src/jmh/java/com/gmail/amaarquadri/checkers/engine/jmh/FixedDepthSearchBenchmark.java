@@ -0,0 +1,81 @@
+package com.gmail.amaarquadri.checkers.engine.jmh;
+
+import com.gmail.amaarquadri.checkers.engine.SearchOptions;
+import com.gmail.amaarquadri.checkers.engine.Searcher;
+import com.gmail.amaarquadri.checkers.engine.TranspositionTable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of searches to a fixed depth. Every invocation runs over the whole BenchmarkCorpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FixedDepthSearchBenchmark {
+    /**
+     * The depth of every search.
+     */
+    @Param({"2", "4", "6"})
+    public int depth;
+
+    /**
+     * The table of the Searcher. It is small, since it is cleared before every invocation.
+     */
+    private TranspositionTable transpositionTable;
+
+    /**
+     * Searches the Positions.
+     */
+    private Searcher searcher;
+
+
+    /**
+     * Creates the Searcher.
+     *
+     * @param corpus The Positions.
+     */
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkCorpus corpus) {
+        transpositionTable = new TranspositionTable(1);
+        searcher = new Searcher(corpus.rules, transpositionTable, SearchOptions.DEFAULT);
+    }
+
+    /**
+     * Makes every invocation search from an empty table, so that it does not just read back the last one.
+     * An invocation searches the whole corpus, so clearing a 1MB table is a small part of it.
+     */
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        transpositionTable.clear();
+    }
+
+    /**
+     * Searches every Position to a fixed depth, as the AI does for every move that it considers.
+     *
+     * @param corpus The Positions.
+     * @param blackhole Keeps the results from being optimized away.
+     */
+    @Benchmark
+    public void getValue(BenchmarkCorpus corpus, Blackhole blackhole) {
+        for (int n = 0; n < BenchmarkCorpus.SIZE; n++)
+            blackhole.consume(searcher.getValue(corpus.positions[n], corpus.isRedTurn[n], depth));
+    }
+}
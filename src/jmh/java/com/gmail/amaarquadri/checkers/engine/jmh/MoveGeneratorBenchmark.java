@@ -0,0 +1,72 @@
+package com.gmail.amaarquadri.checkers.engine.jmh;
+
+import com.gmail.amaarquadri.checkers.engine.MoveGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the MoveGenerator. Every invocation runs over the whole BenchmarkCorpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGeneratorBenchmark {
+    /**
+     * A reusable array that the moves are generated into, like the Searcher uses.
+     */
+    private final long[] moves = new long[MoveGenerator.MAX_MOVES];
+
+
+    /**
+     * Checks whether the player to move can move at all, which is how the end of the game is found.
+     *
+     * @param corpus The Positions.
+     * @param blackhole Keeps the results from being optimized away.
+     */
+    @Benchmark
+    public void canMove(BenchmarkCorpus corpus, Blackhole blackhole) {
+        for (int n = 0; n < BenchmarkCorpus.SIZE; n++)
+            blackhole.consume(corpus.moveGenerator.canMove(corpus.isRedTurn[n], corpus.positions[n]));
+    }
+
+    /**
+     * Generates every move, as the search does at every node.
+     *
+     * @param corpus The Positions.
+     * @param blackhole Keeps the results from being optimized away.
+     */
+    @Benchmark
+    public void generateMoves(BenchmarkCorpus corpus, Blackhole blackhole) {
+        for (int n = 0; n < BenchmarkCorpus.SIZE; n++)
+            blackhole.consume(corpus.moveGenerator.generateMoves(corpus.isRedTurn[n], corpus.positions[n], moves));
+    }
+
+    /**
+     * Generates every move along with the squares that it passes through, as the board does to show and animate the moves.
+     *
+     * @param corpus The Positions.
+     * @param blackhole Keeps the results from being optimized away.
+     */
+    @Benchmark
+    public void generateDetailedMoves(BenchmarkCorpus corpus, Blackhole blackhole) {
+        for (int n = 0; n < BenchmarkCorpus.SIZE; n++) {
+            int moveCount = corpus.moveGenerator.generateMoves(corpus.isRedTurn[n], corpus.positions[n], moves);
+            for (int i = 0; i < moveCount; i++)
+                blackhole.consume(corpus.moveGenerator.getPath(corpus.isRedTurn[n], corpus.positions[n], moves[i]));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.gmail.amaarquadri.checkers.engine.jmh;
+
+import com.gmail.amaarquadri.checkers.engine.Position;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of converting Positions to and from the 33 character serialized boards that the app saves games as.
+ * Every invocation runs over the whole BenchmarkCorpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    /**
+     * Serializes every Position.
+     *
+     * @param corpus The Positions.
+     * @param blackhole Keeps the results from being optimized away.
+     */
+    @Benchmark
+    public void getSerialization(BenchmarkCorpus corpus, Blackhole blackhole) {
+        for (int n = 0; n < BenchmarkCorpus.SIZE; n++) blackhole.consume(corpus.positions[n].getSerialization(corpus.isRedTurn[n]));
+    }
+
+    /**
+     * Reads every serialized board back into a Position.
+     *
+     * @param corpus The Positions.
+     * @param blackhole Keeps the results from being optimized away.
+     */
+    @Benchmark
+    public void fromSerialization(BenchmarkCorpus corpus, Blackhole blackhole) {
+        for (String serializedBoard : corpus.serializations) blackhole.consume(Position.fromSerialization(serializedBoard));
+    }
+}
@@ -0,0 +1,419 @@
+package com.gmail.amaarquadri.checkers.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * This class runs the AI's searches one at a time on a single dedicated worker Thread that lives as long as the game.
+ * Every search returns a Future, and cancelling the Future stops the search within a few milliseconds,
+ * so a search that is no longer needed (because the game was paused or a move was undone) never keeps using the CPU.
+ * The searches themselves are spread across several Threads by a ParallelSearcher or by a Searcher with helpers,
+ * depending on the thread count of the SearchOptions.
+ * While the user is thinking, the AI can ponder: it searches the Position after the reply that it expects, and if the
+ * user plays that reply, the search carries on with the depth it already reached instead of starting again.
+ * Positions in the OpeningBook are answered from the book without searching at all.
+ */
+public final class EngineService {
+    /**
+     * This interface is notified when a search finishes without being cancelled.
+     */
+    public interface SearchListener {
+        /**
+         * Called on the worker Thread when a search finishes, or on the Thread that calls ponderHit() if a ponder
+         * search had already finished by then.
+         * The search can still be cancelled after this is called, so anything that is posted to another Thread
+         * should check whether or not the Future was cancelled before acting on the result.
+         *
+         * @param result The result of the search.
+         */
+        void onSearchFinished(SearchResult result);
+    }
+
+    /**
+     * This interface is notified when a file that was opened on the worker Thread could not be read.
+     */
+    public interface OpenFailedListener {
+        /**
+         * Called on the worker Thread when a file could not be read. The AI carries on without it.
+         *
+         * @param e The reason why the file could not be read.
+         */
+        void onOpenFailed(IOException e);
+    }
+
+
+    //INSTANCE VARIABLES
+
+
+    /**
+     * The rules of the game that will be searched.
+     */
+    private final GameRules rules;
+
+    /**
+     * The single Thread that runs the searches.
+     */
+    private final ExecutorService worker;
+
+    /**
+     * The ParallelSearcher or Searcher that picks the moves. It is kept for the whole game so that its
+     * TranspositionTable still holds the results of previous turns.
+     */
+    private final MovePicker searcher;
+
+    /**
+     * Used to choose between moves that the AI considers to be equally good.
+     */
+    private final Random random;
+
+    /**
+     * Guards runningSearch and the pondering state of every SearchTask, so that a search is never stopped or given a
+     * deadline after it has finished or before it has started.
+     */
+    private final Object lock;
+
+    /**
+     * The search that the worker Thread is running right now, or null if there is none.
+     */
+    private SearchTask runningSearch;
+
+    /**
+     * The OpeningBook that is looked up before every search, or null if there is none. Only used on the worker Thread.
+     */
+    private OpeningBook openingBook;
+
+
+    /**
+     * Creates a new EngineService and starts its worker Thread.
+     *
+     * @param rules The rules of the game that will be searched.
+     * @param transpositionTable The table to remember results in. It must only ever be used for games with the same rules.
+     * @param options Which of the selective search techniques to use, and how many Threads to search with.
+     *                SearchOptions.ROOT_SPLIT spreads the moves of the root across every processor with a
+     *                ParallelSearcher, and any other thread count uses a Searcher with that many Threads.
+     */
+    public EngineService(GameRules rules, TranspositionTable transpositionTable, SearchOptions options) {
+        this.rules = rules;
+        worker = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "EngineService worker");
+                //a game that was left without being shut down should never keep the program running
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        if (options.getThreadCount() == SearchOptions.ROOT_SPLIT)
+            searcher = new ParallelSearcher(rules, transpositionTable, options);
+        else searcher = new Searcher(rules, transpositionTable, options);
+        random = new Random();
+        lock = new Object();
+        runningSearch = null;
+        openingBook = null;
+    }
+
+    /**
+     * Queues a search for the best move on the given Position. Searches run in the order that they were queued.
+     *
+     * @param position The Position to pick a move on. It is copied, so it can be changed as soon as this returns.
+     * @param isRedTurn Whether or not it is red's turn on the given Position.
+     * @param limits The maximum depth and time budget of the search.
+     * @param listener Notified on the worker Thread when the search finishes, unless it was cancelled first.
+     *                 Can be null if only the Future is needed.
+     * @return A Future holding the result of the search. Cancelling it stops the search.
+     */
+    public Future<SearchResult> search(Position position, boolean isRedTurn, SearchLimits limits, SearchListener listener) {
+        SearchTask task = new SearchTask(new Search(new Position(position), isRedTurn, limits), false, listener);
+        worker.execute(task);
+        return task;
+    }
+
+    /**
+     * Queues a ponder search for the best move on the given Position, which is the Position after the reply that the
+     * AI expects. Until ponderHit() is called, it stops at SearchLimits.getPonderDeadline() instead of its usual deadline,
+     * and its listener is only notified afterwards.
+     * If the user plays a different move, the Future must be cancelled instead.
+     *
+     * @param position The Position to pick a move on. It is copied, so it can be changed as soon as this returns.
+     * @param isRedTurn Whether or not it is red's turn on the given Position.
+     * @param limits The maximum depth and time budget of the search once the ponder move is played.
+     * @param listener Notified when the search finishes, unless it was cancelled first, but never before ponderHit()
+     *                 is called. Can be null if only the Future is needed.
+     * @return A Future holding the result of the search. Cancelling it stops the search.
+     */
+    public Future<SearchResult> ponder(Position position, boolean isRedTurn, SearchLimits limits, SearchListener listener) {
+        SearchTask task = new SearchTask(new Search(new Position(position), isRedTurn, limits), true, listener);
+        worker.execute(task);
+        return task;
+    }
+
+    /**
+     * Tells a ponder search that the expected reply was played, so that it becomes a normal search.
+     * Its time budget starts now, so the time it already spent pondering is saved. If it already stopped at its ponder
+     * deadline, the result that it reached is used as it is.
+     * If it already finished, its listener is notified on this Thread before this returns.
+     *
+     * @param ponderSearch A Future that was returned by ponder().
+     * @return Whether or not the ponder search will still deliver its result. It will not if it was cancelled.
+     */
+    public boolean ponderHit(Future<SearchResult> ponderSearch) {
+        if (!(ponderSearch instanceof SearchTask)) throw new IllegalArgumentException("Not a ponder search");
+        SearchTask task = (SearchTask) ponderSearch;
+        SearchResult result;
+        synchronized (lock) {
+            if (task.isCancelled() || !task.isPondering) return false;
+            task.isPondering = false;
+            //a ponder search that is still queued gets its deadline when it starts
+            if (runningSearch == task) searcher.setDeadline(task.search.limits.getDeadline());
+            result = task.ponderResult;
+            task.ponderResult = null;
+        }
+        if (result != null && task.listener != null) task.listener.onSearchFinished(result);
+        return true;
+    }
+
+    /**
+     * Sets the Tablebase that endgame Positions are looked up in, starting with the next search that is queued.
+     *
+     * @param tablebase The Tablebase, or null to stop using one. It must have been opened for the same rules as this
+     *                  EngineService.
+     */
+    public void setTablebase(final Tablebase tablebase) {
+        //the searcher must never be changed while it is searching, so this waits in the queue like a search
+        worker.execute(new Runnable() {
+            @Override
+            public void run() {
+                searcher.setTablebase(tablebase);
+            }
+        });
+    }
+
+    /**
+     * Opens every table in a directory with Tablebase.open() on the worker Thread, and uses the Tablebase starting with
+     * the next search that is queued. Mapping and checking every file takes too long to do on the UI Thread.
+     *
+     * @param directory The directory that holds the files. If it does not exist, the Tablebase is empty.
+     * @param cacheBlocks The number of decompressed blocks to keep.
+     * @param listener Notified on the worker Thread if a file cannot be read, in which case no Tablebase is used.
+     */
+    public void openTablebase(final File directory, final int cacheBlocks, final OpenFailedListener listener) {
+        worker.execute(new Runnable() {
+            @Override
+            public void run() {
+                Tablebase tablebase;
+                try {
+                    tablebase = Tablebase.open(directory, rules, cacheBlocks);
+                } catch (IOException e) {
+                    listener.onOpenFailed(e);
+                    return;
+                }
+                searcher.setTablebase(tablebase);
+            }
+        });
+    }
+
+    /**
+     * Sets the static evaluation of the Positions at the leaves of the tree, starting with the next search that is queued.
+     *
+     * @param evaluator The Evaluator. The default is MaterialEvaluator.INSTANCE.
+     */
+    public void setEvaluator(final Evaluator evaluator) {
+        //the searcher must never be changed while it is searching, so this waits in the queue like a search
+        worker.execute(new Runnable() {
+            @Override
+            public void run() {
+                searcher.setEvaluator(evaluator);
+            }
+        });
+    }
+
+    /**
+     * Sets the OpeningBook that is looked up before searching, starting with the next search that is queued.
+     *
+     * @param openingBook The OpeningBook, or null to stop using one. It must have been opened for the same rules as this
+     *                    EngineService.
+     */
+    public void setOpeningBook(final OpeningBook openingBook) {
+        //this waits in the queue like a search, so openingBook is only ever used on the worker Thread
+        worker.execute(new Runnable() {
+            @Override
+            public void run() {
+                EngineService.this.openingBook = openingBook;
+            }
+        });
+    }
+
+    /**
+     * Stops the running search, cancels every queued search, and ends the worker Thread.
+     * No more searches can be queued afterwards.
+     */
+    public void shutdown() {
+        synchronized (lock) {
+            if (runningSearch != null) runningSearch.cancel(false);
+        }
+        worker.shutdownNow();
+    }
+
+
+    /**
+     * What a single search looks for, which is run on the worker Thread.
+     */
+    private final class Search implements Callable<SearchResult> {
+        /**
+         * The Position to pick a move on. It is not used by anything else.
+         */
+        private final Position position;
+
+        /**
+         * Whether or not it is red's turn on the Position.
+         */
+        private final boolean isRedTurn;
+
+        /**
+         * The maximum depth and time budget of the search.
+         */
+        private final SearchLimits limits;
+
+
+        /**
+         * Creates a new Search.
+         *
+         * @param position The Position to pick a move on. It must not be used by anything else.
+         * @param isRedTurn Whether or not it is red's turn on the given Position.
+         * @param limits The maximum depth and time budget of the search.
+         */
+        private Search(Position position, boolean isRedTurn, SearchLimits limits) {
+            this.position = position;
+            this.isRedTurn = isRedTurn;
+            this.limits = limits;
+        }
+
+        @Override
+        public SearchResult call() {
+            if (openingBook != null) {
+                OpeningBook.Entry entry = openingBook.probe(position, isRedTurn, random);
+                if (entry != null) return getBookResult(entry);
+            }
+            long move = searcher.pickMoveUnlessStopped(position, isRedTurn, limits.getMaxDepth(), random);
+            //the search has just filled the TranspositionTable with the principal variation, so the reply can be read from it
+            long ponderMove = searcher.getPredictedReply(position, isRedTurn, move);
+            return new SearchResult(move, searcher.getRootValue(), ponderMove, searcher.getStatistics().copy());
+        }
+
+        /**
+         * @param entry The Entry of the OpeningBook that was picked for the Position.
+         * @return The result of playing the Entry's move, with nothing searched.
+         */
+        private SearchResult getBookResult(OpeningBook.Entry entry) {
+            //the reply that is expected is the one that the book likes best, if the book goes that far
+            int killedKings = position.make(entry.getMove());
+            OpeningBook.Entry reply = openingBook.probe(position, !isRedTurn, null);
+            position.unmake(entry.getMove(), killedKings);
+            long ponderMove = reply == null ? PackedMove.NONE : reply.getMove();
+            return new SearchResult(entry.getMove(), isRedTurn ? entry.getValue() : -entry.getValue(), ponderMove,
+                    new SearchStatistics());
+        }
+    }
+
+
+    /**
+     * A single search, which is both the Runnable that the worker Thread runs and the Future that is returned.
+     */
+    private final class SearchTask extends FutureTask<SearchResult> {
+        /**
+         * What the search looks for.
+         */
+        private final Search search;
+
+        /**
+         * Notified when the search finishes, or null.
+         */
+        private final SearchListener listener;
+
+        /**
+         * Whether or not this is a ponder search whose ponder move has not been played yet. Guarded by the lock.
+         */
+        private boolean isPondering;
+
+        /**
+         * The result of a ponder search that finished before its ponder move was played, or null. Guarded by the lock.
+         */
+        private SearchResult ponderResult;
+
+
+        /**
+         * Creates a new SearchTask.
+         *
+         * @param search What the search looks for.
+         * @param isPondering Whether or not this is a ponder search.
+         * @param listener Notified when the search finishes, or null.
+         */
+        private SearchTask(Search search, boolean isPondering, SearchListener listener) {
+            super(search);
+            this.search = search;
+            this.listener = listener;
+            this.isPondering = isPondering;
+            ponderResult = null;
+        }
+
+        @Override
+        public void run() {
+            synchronized (lock) {
+                //a search that was cancelled while it was queued is never started
+                if (isCancelled()) return;
+                runningSearch = this;
+                searcher.clearStop();
+                //a ponder search gets its usual deadline once its ponder move is played
+                searcher.setDeadline(isPondering ? search.limits.getPonderDeadline() : search.limits.getDeadline());
+            }
+            try {
+                super.run();
+            } finally {
+                synchronized (lock) {
+                    runningSearch = null;
+                }
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            //the search checks its stop flag instead of being interrupted, since it never blocks
+            boolean isCancelled = super.cancel(false);
+            synchronized (lock) {
+                if (isCancelled && runningSearch == this) searcher.stop();
+            }
+            return isCancelled;
+        }
+
+        @Override
+        protected void done() {
+            if (listener == null || isCancelled()) return;
+            SearchResult result;
+            try {
+                result = get();
+            } catch (InterruptedException e) {
+                //should never happen, since the search is already done
+                throw new AssertionError(e);
+            } catch (ExecutionException e) {
+                //a search should never fail, so this is a bug that must not be hidden
+                throw new IllegalStateException("The search failed", e.getCause());
+            }
+            synchronized (lock) {
+                //the result of a ponder search is kept until ponderHit() delivers it
+                if (isPondering) {
+                    ponderResult = result;
+                    return;
+                }
+            }
+            listener.onSearchFinished(result);
+        }
+    }
+}
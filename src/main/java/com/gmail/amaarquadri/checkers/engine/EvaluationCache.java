@@ -0,0 +1,73 @@
+package com.gmail.amaarquadri.checkers.engine;
+
+import java.util.Arrays;
+
+/**
+ * This class remembers the static evaluation of recently evaluated Positions, so that a Position that is reached again
+ * at the leaves of the tree does not need to be evaluated again.
+ * It is direct mapped and stored in a single long[], so it never creates Objects while searching.
+ * Every entry is one long: the upper 32 bits of the key, and the value. The lower bits of the key pick the entry,
+ * so together they identify the Position almost as well as the whole key does.
+ * Each Searcher has its own EvaluationCache, so it is not safe to use from several Threads at once.
+ * The evaluation never depends on the rules, so a cache only needs to be cleared when the Evaluator changes.
+ */
+final class EvaluationCache {
+    /**
+     * Returned by probe() if the key is not in the cache.
+     */
+    static final long NOT_FOUND = Long.MIN_VALUE;
+
+    /**
+     * The entries, as (upper 32 bits of the key) | (value & 0xFFFFFFFF).
+     */
+    private final long[] table;
+
+    /**
+     * The number of entries minus one. The number of entries is a power of 2, so this masks a key down to an entry.
+     */
+    private final int mask;
+
+
+    /**
+     * Creates a new empty EvaluationCache.
+     *
+     * @param kilobytes The maximum amount of memory to use. The actual size is rounded down to a power of 2 entries.
+     */
+    EvaluationCache(int kilobytes) {
+        if (kilobytes < 1) throw new IllegalArgumentException("kilobytes must be at least 1");
+        long entries = Long.highestOneBit(((long) kilobytes << 10) / 8);
+        //an array cannot have more than Integer.MAX_VALUE elements
+        entries = Math.min(entries, 1 << 30);
+        table = new long[(int) entries];
+        mask = (int) entries - 1;
+    }
+
+    /**
+     * Looks up the given key.
+     *
+     * @param key The key of the Position. The value does not depend on whose turn it is, so either key can be used
+     *            as long as it is always the same one.
+     * @return The value that was stored for the key, or NOT_FOUND.
+     */
+    long probe(long key) {
+        long entry = table[(int) key & mask];
+        return (entry ^ key) >>> 32 == 0 ? (int) entry : NOT_FOUND;
+    }
+
+    /**
+     * Stores a value, replacing whatever was stored in its entry before.
+     *
+     * @param key The key of the Position.
+     * @param value The value of the Position.
+     */
+    void store(long key, int value) {
+        table[(int) key & mask] = key & 0xFFFFFFFF00000000L | value & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    void clear() {
+        Arrays.fill(table, 0);
+    }
+}
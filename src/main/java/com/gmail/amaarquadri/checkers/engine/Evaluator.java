@@ -0,0 +1,26 @@
+package com.gmail.amaarquadri.checkers.engine;
+
+/**
+ * This interface is the static evaluation that a Searcher uses at the leaves of the tree.
+ * Implementations must be safe to use from several Threads at once, since the helpers of a Searcher share its Evaluator.
+ * Every value must be far from Searcher.WIN, so that it can never be mistaken for a won or lost game.
+ */
+public interface Evaluator {
+    /**
+     * @param position The Position to evaluate. It must not be modified.
+     * @return The value of the Position from red's perspective.
+     */
+    int evaluate(Position position);
+
+    /**
+     * @return An upper bound on how much a single killed piece can change evaluate() in favor of the player who killed it,
+     *         not counting what getMaxMoveGain() already allows for. It is used to skip kills that cannot matter.
+     */
+    int getMaxKillGain();
+
+    /**
+     * @return An upper bound on how much a single move can change evaluate() in favor of the player who made it,
+     *         apart from the pieces that it kills, including the moving piece being kinged.
+     */
+    int getMaxMoveGain();
+}
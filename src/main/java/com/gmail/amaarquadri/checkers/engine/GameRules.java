@@ -0,0 +1,113 @@
+package com.gmail.amaarquadri.checkers.engine;
+
+/**
+ * This class is an immutable snapshot of the optional rules that change how pieces can move.
+ * A game takes a snapshot when it starts, so that changing the settings can never affect a search that is already running.
+ * There are only 8 possible rule sets, so every instance is created up front and shared.
+ */
+public final class GameRules {
+    //STATIC MEMBERS
+
+
+    /**
+     * Every possible GameRules, indexed by getIndex().
+     */
+    private static final GameRules[] ALL = new GameRules[8];
+
+    static {
+        for (int index = 0; index < 8; index++) ALL[index] = new GameRules((index & 1) != 0, (index & 2) != 0, (index & 4) != 0);
+    }
+
+    /**
+     * The rules used when none of the optional rules are enabled.
+     */
+    public static final GameRules DEFAULT = ALL[0];
+
+    /**
+     * @param areFlyingKingsEnabled Whether or not "Flying Kings" are enabled.
+     * @param isButterflyKillingEnabled Whether or not "Allow Butterfly Capturing" is enabled.
+     * @param isKillAfterKingingEnabled Whether or not "Allow Capturing After Kinging" is enabled.
+     * @return The GameRules with the given rules enabled.
+     */
+    public static GameRules of(boolean areFlyingKingsEnabled, boolean isButterflyKillingEnabled,
+                               boolean isKillAfterKingingEnabled) {
+        return ALL[(areFlyingKingsEnabled ? 1 : 0) | (isButterflyKillingEnabled ? 2 : 0) | (isKillAfterKingingEnabled ? 4 : 0)];
+    }
+
+    /**
+     * @param index A value returned by getIndex(), from 0 to 7.
+     * @return The GameRules with the given index.
+     */
+    public static GameRules fromIndex(int index) {
+        if (index < 0 || index >= 8) throw new IllegalArgumentException("index must be between 0 and 7");
+        return ALL[index];
+    }
+
+
+    //INSTANCE VARIABLES
+
+
+    /**
+     * Whether or not "Flying Kings" are enabled.
+     */
+    private final boolean areFlyingKingsEnabled;
+
+    /**
+     * Whether or not "Allow Butterfly Capturing" is enabled.
+     */
+    private final boolean isButterflyKillingEnabled;
+
+    /**
+     * Whether or not "Allow Capturing After Kinging" is enabled.
+     */
+    private final boolean isKillAfterKingingEnabled;
+
+
+    /**
+     * Creates a new GameRules. Use of() instead, so that instances are shared.
+     *
+     * @param areFlyingKingsEnabled Whether or not "Flying Kings" are enabled.
+     * @param isButterflyKillingEnabled Whether or not "Allow Butterfly Capturing" is enabled.
+     * @param isKillAfterKingingEnabled Whether or not "Allow Capturing After Kinging" is enabled.
+     */
+    private GameRules(boolean areFlyingKingsEnabled, boolean isButterflyKillingEnabled, boolean isKillAfterKingingEnabled) {
+        this.areFlyingKingsEnabled = areFlyingKingsEnabled;
+        this.isButterflyKillingEnabled = isButterflyKillingEnabled;
+        this.isKillAfterKingingEnabled = isKillAfterKingingEnabled;
+    }
+
+    /**
+     * @return Whether or not "Flying Kings" are enabled.
+     */
+    public boolean areFlyingKingsEnabled() {
+        return areFlyingKingsEnabled;
+    }
+
+    /**
+     * @return Whether or not "Allow Butterfly Capturing" is enabled.
+     */
+    public boolean isButterflyKillingEnabled() {
+        return isButterflyKillingEnabled;
+    }
+
+    /**
+     * @return Whether or not "Allow Capturing After Kinging" is enabled.
+     */
+    public boolean isKillAfterKingingEnabled() {
+        return isKillAfterKingingEnabled;
+    }
+
+    /**
+     * @return A number from 0 to 7 that uniquely identifies this rule set.
+     * Bit 0 holds flying kings, bit 1 holds butterfly killing, and bit 2 holds killing after kinging.
+     */
+    public int getIndex() {
+        return (areFlyingKingsEnabled ? 1 : 0) | (isButterflyKillingEnabled ? 2 : 0) | (isKillAfterKingingEnabled ? 4 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return "GameRules[flyingKings=" + areFlyingKingsEnabled + ", butterflyKilling=" + isButterflyKillingEnabled +
+                ", killAfterKinging=" + isKillAfterKingingEnabled + "]";
+    }
+}
@@ -0,0 +1,276 @@
+package com.gmail.amaarquadri.checkers.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is an immutable count of the pieces and kings of each player, which picks out a single table of a Tablebase.
+ * Every Position with this Material has its own index in the table, from 0 to getSize() - 1.
+ * The index is built by numbering the squares of the red pieces, then the white pieces, the red kings and the white kings,
+ * where each group only counts the squares that the groups before it left empty, so no index is wasted on two pieces
+ * sharing a square.
+ */
+public final class Material {
+    //STATIC MEMBERS
+
+
+    /**
+     * BINOMIALS[n][k] is the number of ways to pick k of n squares.
+     */
+    private static final int[][] BINOMIALS = new int[33][33];
+
+    static {
+        for (int n = 0; n <= 32; n++) {
+            BINOMIALS[n][0] = 1;
+            for (int k = 1; k <= n; k++) BINOMIALS[n][k] = BINOMIALS[n - 1][k - 1] + BINOMIALS[n - 1][k];
+        }
+    }
+
+    /**
+     * The largest number of pieces that a player can have of a single type that fits in a key.
+     */
+    private static final int MAX_COUNT = 15;
+
+    /**
+     * The number of different keys, so that an array of this length can be indexed by getKey().
+     */
+    public static final int KEY_COUNT = 1 << 16;
+
+    /**
+     * @param maxPieces The maximum number of pieces on the board, counting both players.
+     * @return Every Material with at most the given number of pieces where both players have at least one piece.
+     * A Material always comes after every Material that its Positions can reach by killing or kinging.
+     * Its flip() reaches it by a plain move, so the two of them must be worked out together.
+     */
+    public static List<Material> upTo(int maxPieces) {
+        List<Material> materials = new ArrayList<>();
+        //a kill takes away a piece and kinging takes away a non-king, so fewer pieces and then fewer non-kings go first
+        for (int pieceCount = 2; pieceCount <= maxPieces; pieceCount++) for (int nonKings = 0; nonKings <= pieceCount; nonKings++)
+            for (int redPieces = 0; redPieces <= nonKings; redPieces++) for (int redKings = 0; redKings <= pieceCount - nonKings; redKings++) {
+                int whitePieces = nonKings - redPieces, whiteKings = pieceCount - nonKings - redKings;
+                if (redPieces + redKings > 0 && whitePieces + whiteKings > 0)
+                    materials.add(new Material(redPieces, redKings, whitePieces, whiteKings));
+            }
+        return materials;
+    }
+
+    /**
+     * @param red A mask of all the squares that contain a red piece or a red king.
+     * @param white A mask of all the squares that contain a white piece or a white king.
+     * @param kings A mask of all the squares that contain a king (of either colour).
+     * @return The key of the Material of the given masks, which is the same as getKey() of that Material.
+     */
+    public static int getKey(int red, int white, int kings) {
+        return getKey(Integer.bitCount(red & ~kings), Integer.bitCount(red & kings), Integer.bitCount(white & ~kings),
+                Integer.bitCount(white & kings));
+    }
+
+    /**
+     * @param redPieces The number of red pieces that are not kings.
+     * @param redKings The number of red kings.
+     * @param whitePieces The number of white pieces that are not kings.
+     * @param whiteKings The number of white kings.
+     * @return A number below KEY_COUNT that is different for every Material.
+     */
+    private static int getKey(int redPieces, int redKings, int whitePieces, int whiteKings) {
+        return redPieces | redKings << 4 | whitePieces << 8 | whiteKings << 12;
+    }
+
+    /**
+     * Numbers a set of squares, skipping the squares that are already occupied.
+     *
+     * @param set The mask of squares to number.
+     * @param occupied The mask of squares that are skipped. It must not overlap the set.
+     * @return A number from 0 to BINOMIALS[32 - occupied squares][squares in the set] - 1.
+     */
+    private static int rank(int set, int occupied) {
+        int rank = 0;
+        for (int k = 1; set != 0; set &= set - 1, k++) {
+            int square = Integer.numberOfTrailingZeros(set);
+            //every square that is not occupied gets a consecutive number
+            rank += BINOMIALS[square - Integer.bitCount(occupied & ((1 << square) - 1))][k];
+        }
+        return rank;
+    }
+
+    /**
+     * Does the opposite of rank().
+     *
+     * @param rank A value returned by rank().
+     * @param count The number of squares in the set.
+     * @param occupied The mask of squares that were skipped.
+     * @return The set of squares with the given rank.
+     */
+    private static int unrank(int rank, int count, int occupied) {
+        int set = 0;
+        for (int k = count; k > 0; k--) {
+            //the squares were added lowest first, so the highest square is the largest number whose binomial fits
+            int number = k - 1;
+            while (BINOMIALS[number + 1][k] <= rank) number++;
+            rank -= BINOMIALS[number][k];
+            //find the square that has that number once the occupied squares are skipped
+            int square = -1;
+            for (int free = -1; free < number; ) if ((occupied >>> ++square & 1) == 0) free++;
+            set |= 1 << square;
+        }
+        return set;
+    }
+
+
+    //INSTANCE VARIABLES
+
+
+    /**
+     * The number of red pieces that are not kings.
+     */
+    private final int redPieces;
+
+    /**
+     * The number of red kings.
+     */
+    private final int redKings;
+
+    /**
+     * The number of white pieces that are not kings.
+     */
+    private final int whitePieces;
+
+    /**
+     * The number of white kings.
+     */
+    private final int whiteKings;
+
+    /**
+     * The number of ways to place the white pieces, the red kings and the white kings, once the groups before them are placed.
+     */
+    private final int whitePiecesSize, redKingsSize, whiteKingsSize;
+
+    /**
+     * The number of indices in the table.
+     */
+    private final int size;
+
+
+    /**
+     * Creates a new Material.
+     *
+     * @param redPieces The number of red pieces that are not kings.
+     * @param redKings The number of red kings.
+     * @param whitePieces The number of white pieces that are not kings.
+     * @param whiteKings The number of white kings.
+     */
+    public Material(int redPieces, int redKings, int whitePieces, int whiteKings) {
+        if (Math.min(Math.min(redPieces, redKings), Math.min(whitePieces, whiteKings)) < 0 ||
+                Math.max(Math.max(redPieces, redKings), Math.max(whitePieces, whiteKings)) > MAX_COUNT ||
+                redPieces + redKings + whitePieces + whiteKings > 32)
+            throw new IllegalArgumentException("Impossible material");
+        this.redPieces = redPieces;
+        this.redKings = redKings;
+        this.whitePieces = whitePieces;
+        this.whiteKings = whiteKings;
+        whitePiecesSize = BINOMIALS[32 - redPieces][whitePieces];
+        redKingsSize = BINOMIALS[32 - redPieces - whitePieces][redKings];
+        whiteKingsSize = BINOMIALS[32 - redPieces - whitePieces - redKings][whiteKings];
+        long size = (long) BINOMIALS[32][redPieces] * whitePiecesSize * redKingsSize * whiteKingsSize;
+        if (size > Integer.MAX_VALUE) throw new IllegalArgumentException("Too many Positions to index: " + this);
+        this.size = (int) size;
+    }
+
+    /**
+     * @return The number of red pieces that are not kings.
+     */
+    public int getRedPieces() {
+        return redPieces;
+    }
+
+    /**
+     * @return The number of red kings.
+     */
+    public int getRedKings() {
+        return redKings;
+    }
+
+    /**
+     * @return The number of white pieces that are not kings.
+     */
+    public int getWhitePieces() {
+        return whitePieces;
+    }
+
+    /**
+     * @return The number of white kings.
+     */
+    public int getWhiteKings() {
+        return whiteKings;
+    }
+
+    /**
+     * @return The total number of pieces, counting both players.
+     */
+    public int getPieceCount() {
+        return redPieces + redKings + whitePieces + whiteKings;
+    }
+
+    /**
+     * @return The number of indices in the table.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return A number below KEY_COUNT that is different for every Material.
+     */
+    public int getKey() {
+        return getKey(redPieces, redKings, whitePieces, whiteKings);
+    }
+
+    /**
+     * @return The Material with the colours swapped, which is the Material of every Position after it is flipped.
+     */
+    public Material flip() {
+        return new Material(whitePieces, whiteKings, redPieces, redKings);
+    }
+
+    /**
+     * Returns the index of a Position, which must have this Material.
+     *
+     * @param red A mask of all the squares that contain a red piece or a red king.
+     * @param white A mask of all the squares that contain a white piece or a white king.
+     * @param kings A mask of all the squares that contain a king (of either colour).
+     * @return The index of the Position in the table, from 0 to getSize() - 1.
+     */
+    public int getIndex(int red, int white, int kings) {
+        int redPieceMask = red & ~kings, whitePieceMask = white & ~kings, redKingMask = red & kings;
+        int index = rank(redPieceMask, 0);
+        index = index * whitePiecesSize + rank(whitePieceMask, redPieceMask);
+        index = index * redKingsSize + rank(redKingMask, redPieceMask | whitePieceMask);
+        return index * whiteKingsSize + rank(white & kings, redPieceMask | whitePieceMask | redKingMask);
+    }
+
+    /**
+     * Does the opposite of getIndex().
+     *
+     * @param index An index from 0 to getSize() - 1.
+     * @return The Position with the given index, or null if it has a piece on the row where it would have been kinged,
+     *         which can never happen in a game.
+     */
+    public Position getPosition(int index) {
+        int whiteKingRank = index % whiteKingsSize;
+        index /= whiteKingsSize;
+        int redKingRank = index % redKingsSize;
+        index /= redKingsSize;
+        int whitePieceRank = index % whitePiecesSize;
+        int redPieceMask = unrank(index / whitePiecesSize, redPieces, 0);
+        int whitePieceMask = unrank(whitePieceRank, whitePieces, redPieceMask);
+        int redKingMask = unrank(redKingRank, redKings, redPieceMask | whitePieceMask);
+        int whiteKingMask = unrank(whiteKingRank, whiteKings, redPieceMask | whitePieceMask | redKingMask);
+        if ((redPieceMask & MoveGenerator.ROW_0) != 0 || (whitePieceMask & MoveGenerator.ROW_7) != 0) return null;
+        return new Position(redPieceMask | redKingMask, whitePieceMask | whiteKingMask, redKingMask | whiteKingMask);
+    }
+
+    @Override
+    public String toString() {
+        return "Material[red=" + redPieces + "+" + redKings + "K, white=" + whitePieces + "+" + whiteKings + "K]";
+    }
+}
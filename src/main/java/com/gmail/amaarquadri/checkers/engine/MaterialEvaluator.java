@@ -0,0 +1,40 @@
+package com.gmail.amaarquadri.checkers.engine;
+
+/**
+ * This class is the original hand picked evaluation: material, how far every piece has advanced, and pieces on the edges.
+ * It is kept up to date by the Position itself, so it takes constant time (see Position.getRawValue()).
+ */
+public final class MaterialEvaluator implements Evaluator {
+    /**
+     * The only instance, since there is nothing to configure.
+     */
+    public static final MaterialEvaluator INSTANCE = new MaterialEvaluator();
+
+
+    /**
+     * Prevents MaterialEvaluator initialization from outside this class. Use INSTANCE instead.
+     */
+    private MaterialEvaluator() {
+    }
+
+    @Override
+    public int evaluate(Position position) {
+        return position.getRawValue();
+    }
+
+    @Override
+    public int getMaxKillGain() {
+        return Position.MAX_KILL_GAIN;
+    }
+
+    @Override
+    public int getMaxMoveGain() {
+        //the positional terms change by less than 100000 in a single move
+        return Position.MAX_KINGING_GAIN + 100000;
+    }
+
+    @Override
+    public String toString() {
+        return "MaterialEvaluator";
+    }
+}
@@ -0,0 +1,626 @@
+package com.gmail.amaarquadri.checkers.engine;
+
+/**
+ * This class generates moves on a Position by shifting and masking the bitboards of an entire side at once.
+ * It gives the exact same moves as the original char[][] methods in Utils did.
+ * Red pieces move up (decreasing vertical position) and white pieces move down.
+ * There is one MoveGenerator for each GameRules, which is picked once with forRules() when a game starts.
+ * Butterfly kills are built into its jump tables, and the other rules are constants returned by a subclass for each
+ * combination of them. The JIT inlines those constants once it has seen which subclass is used, so the branches on
+ * them are folded away, no settings are read while searching, and the rules can never change partway through a search.
+ */
+public abstract class MoveGenerator {
+    /**
+     * The maximum number of moves that can be possible on a single Position.
+     * Multi kills add one move for every intermediate stopping point, so this is much larger than it would be in most variants.
+     */
+    public static final int MAX_MOVES = 512;
+
+
+    //BOARD GEOMETRY
+
+
+    /**
+     * Constant indicating the direction towards the top left.
+     */
+    static final int UP_LEFT = 0;
+
+    /**
+     * Constant indicating the direction towards the top right.
+     */
+    static final int UP_RIGHT = 1;
+
+    /**
+     * Constant indicating the direction towards the bottom left.
+     */
+    static final int DOWN_LEFT = 2;
+
+    /**
+     * Constant indicating the direction towards the bottom right.
+     */
+    static final int DOWN_RIGHT = 3;
+
+    /**
+     * A mask of the squares in columns 0, 2, 4, and 6. These squares are on odd rows.
+     */
+    private static final int EVEN_COLUMNS = 0x0F0F0F0F;
+
+    /**
+     * A mask of the squares in columns 1, 3, 5, and 7. These squares are on even rows.
+     */
+    private static final int ODD_COLUMNS = 0xF0F0F0F0;
+
+    /**
+     * A mask of the squares in the left-most column.
+     */
+    private static final int COLUMN_0 = 0x0000000F;
+
+    /**
+     * A mask of the squares in the right-most column.
+     */
+    private static final int COLUMN_7 = 0xF0000000;
+
+    /**
+     * A mask of the squares in the second column from the left, where butterfly kills can start.
+     */
+    private static final int COLUMN_1 = 0x000000F0;
+
+    /**
+     * A mask of the squares in the second column from the right, where butterfly kills can start.
+     */
+    private static final int COLUMN_6 = 0x0F000000;
+
+    /**
+     * A mask of the squares in the top row. Red pieces are kinged here.
+     */
+    static final int ROW_0 = 0x10101010;
+
+    /**
+     * A mask of the squares in the bottom row. White pieces are kinged here.
+     */
+    static final int ROW_7 = 0x08080808;
+
+    /**
+     * NEIGHBORS[direction][square] is the square adjacent to the given square in the given direction, or -1 if there is none.
+     */
+    private static final int[][] NEIGHBORS = new int[4][32];
+
+    /**
+     * JUMPED[direction][square] is the square that is killed when jumping from the given square in the given direction.
+     * Holds -1 if there is no such jump.
+     */
+    private static final int[][] JUMPED = new int[4][32];
+
+    /**
+     * LANDING[direction][square] is the square that is landed on when jumping from the given square in the given direction.
+     * Holds -1 if there is no such jump.
+     */
+    private static final int[][] LANDING = new int[4][32];
+
+    /**
+     * BUTTERFLY_JUMPED[direction][square] is the square on the edge of the board that is killed by a butterfly kill
+     * from the given square in the given direction, or -1 if there is no such butterfly kill.
+     */
+    private static final int[][] BUTTERFLY_JUMPED = new int[4][32];
+
+    /**
+     * BUTTERFLY_LANDING[direction][square] is the square that is landed on by a butterfly kill from the given square
+     * in the given direction, or -1 if there is no such butterfly kill.
+     */
+    private static final int[][] BUTTERFLY_LANDING = new int[4][32];
+
+    static {
+        for (int square = 0; square < 32; square++) {
+            int i = Position.getI(square), j = Position.getJ(square);
+            for (int direction = 0; direction < 4; direction++) {
+                int di = direction == UP_LEFT || direction == DOWN_LEFT ? -1 : 1;
+                int dj = direction == UP_LEFT || direction == UP_RIGHT ? -1 : 1;
+                NEIGHBORS[direction][square] = getSquareIfValid(i + di, j + dj);
+                boolean canJump = getSquareIfValid(i + 2 * di, j + 2 * dj) != -1;
+                JUMPED[direction][square] = canJump ? NEIGHBORS[direction][square] : -1;
+                LANDING[direction][square] = getSquareIfValid(i + 2 * di, j + 2 * dj);
+
+                //butterfly kills bounce off the side of the board, from column 1 over column 0 or from column 6 over column 7
+                boolean canButterflyJump = (i == 1 && di == -1 || i == 6 && di == 1) && getSquareIfValid(i, j + 2 * dj) != -1;
+                BUTTERFLY_JUMPED[direction][square] = canButterflyJump ? NEIGHBORS[direction][square] : -1;
+                BUTTERFLY_LANDING[direction][square] = canButterflyJump ? getSquareIfValid(i, j + 2 * dj) : -1;
+            }
+        }
+    }
+
+    /**
+     * @param i The horizontal position of a square.
+     * @param j The vertical position of a square.
+     * @return The index of the bit representing the square, or -1 if the position is off the board.
+     */
+    private static int getSquareIfValid(int i, int j) {
+        return i >= 0 && i < 8 && j >= 0 && j < 8 ? Position.getSquare(i, j) : -1;
+    }
+
+    /**
+     * One MoveGenerator for each GameRules, indexed by GameRules.getIndex().
+     */
+    private static final MoveGenerator[] GENERATORS = new MoveGenerator[8];
+
+    static {
+        for (int index = 0; index < 8; index++) GENERATORS[index] = create(GameRules.fromIndex(index));
+    }
+
+    /**
+     * @param rules The rules of the game.
+     * @return A new MoveGenerator of the subclass for the rules that change how moves are generated.
+     */
+    private static MoveGenerator create(GameRules rules) {
+        if (rules.areFlyingKingsEnabled())
+            return rules.isKillAfterKingingEnabled() ? new FlyingKingsKillAfterKinging(rules) : new FlyingKings(rules);
+        return rules.isKillAfterKingingEnabled() ? new KillAfterKinging(rules) : new Standard(rules);
+    }
+
+    /**
+     * @param rules The rules of the game.
+     * @return The MoveGenerator that was built for the given rules.
+     */
+    public static MoveGenerator forRules(GameRules rules) {
+        return GENERATORS[rules.getIndex()];
+    }
+
+    /**
+     * Moves every bit in the given mask one square in the given direction.
+     * Bits that would move off the board are dropped.
+     *
+     * @param direction The direction to shift in.
+     * @param mask The mask to shift.
+     * @return The shifted mask.
+     */
+    static int shift(int direction, int mask) {
+        switch (direction) {
+            case UP_LEFT: return (mask & EVEN_COLUMNS & ~COLUMN_0) >>> 4 | (mask & ODD_COLUMNS & ~ROW_0) >>> 5;
+            case UP_RIGHT: return (mask & EVEN_COLUMNS) << 4 | (mask & ODD_COLUMNS & ~ROW_0 & ~COLUMN_7) << 3;
+            case DOWN_LEFT: return (mask & EVEN_COLUMNS & ~ROW_7 & ~COLUMN_0) >>> 3 | (mask & ODD_COLUMNS) >>> 4;
+            default: return (mask & EVEN_COLUMNS & ~ROW_7) << 5 | (mask & ODD_COLUMNS & ~COLUMN_7) << 4;
+        }
+    }
+
+    /**
+     * @param direction A direction.
+     * @return The opposite direction.
+     */
+    private static int opposite(int direction) {
+        return 3 - direction;
+    }
+
+
+    //INSTANCE VARIABLES
+
+
+    /**
+     * The rules that this MoveGenerator was built for.
+     */
+    private final GameRules rules;
+
+    /**
+     * A mask of the squares where butterfly kills can start, or 0 if butterfly killing is disabled.
+     */
+    private final int butterflyStarts;
+
+    /**
+     * jumped[direction][square] is the square that is killed when jumping from the given square in the given direction,
+     * or -1 if there is no such jump. This includes butterfly kills if they are enabled.
+     * A butterfly kill always goes off the side of the board as a normal jump, so the two never share an entry.
+     */
+    private final int[][] jumped;
+
+    /**
+     * landing[direction][square] is the square that is landed on when jumping from the given square in the given direction,
+     * or -1 if there is no such jump. This includes butterfly kills if they are enabled.
+     */
+    private final int[][] landing;
+
+
+    /**
+     * Creates a new MoveGenerator. Use forRules() instead, so that the jump tables are only built once.
+     *
+     * @param rules The rules that the MoveGenerator will follow.
+     */
+    private MoveGenerator(GameRules rules) {
+        this.rules = rules;
+        butterflyStarts = rules.isButterflyKillingEnabled() ? COLUMN_1 | COLUMN_6 : 0;
+        jumped = new int[4][32];
+        landing = new int[4][32];
+        for (int direction = 0; direction < 4; direction++) for (int square = 0; square < 32; square++) {
+            boolean isButterfly = rules.isButterflyKillingEnabled() && BUTTERFLY_JUMPED[direction][square] != -1;
+            jumped[direction][square] = isButterfly ? BUTTERFLY_JUMPED[direction][square] : JUMPED[direction][square];
+            landing[direction][square] = isButterfly ? BUTTERFLY_LANDING[direction][square] : LANDING[direction][square];
+        }
+    }
+
+    /**
+     * @return The rules that this MoveGenerator follows.
+     */
+    public GameRules getRules() {
+        return rules;
+    }
+
+    /**
+     * @return Whether or not "Flying Kings" are enabled. Each subclass returns a constant.
+     */
+    abstract boolean areFlyingKingsEnabled();
+
+    /**
+     * @return Whether or not "Allow Capturing After Kinging" is enabled. Each subclass returns a constant.
+     */
+    abstract boolean isKillAfterKingingEnabled();
+
+
+    //MOVE GENERATION
+
+
+    /**
+     * Returns whether or not the player whose turn it is can make a move.
+     * If this returns false, then the game is over and the player whose turn it is has lost.
+     *
+     * @param isRedTurn Whether or not it is red's turn.
+     * @param position The Position on which to perform the operations.
+     * @return Whether or not the player whose turn it is can make a move.
+     */
+    public boolean canMove(boolean isRedTurn, Position position) {
+        int own = isRedTurn ? position.red : position.white;
+        int enemy = isRedTurn ? position.white : position.red;
+        int empty = ~(position.red | position.white);
+
+        for (int direction = 0; direction < 4; direction++) {
+            int movers = getMovers(isRedTurn, direction, own, position.kings);
+            //check simple moves
+            if ((shift(direction, movers) & empty) != 0) return true;
+            //check kills
+            if ((shift(direction, shift(direction, movers) & enemy) & empty) != 0) return true;
+        }
+
+        //check butterfly killing (it can only start from two columns, so check them one by one)
+        for (int remaining = own & butterflyStarts; remaining != 0; remaining &= remaining - 1) {
+            int square = Integer.numberOfTrailingZeros(remaining);
+            for (int direction = 0; direction < 4; direction++) {
+                if (((getMovers(isRedTurn, direction, own, position.kings) >>> square) & 1) == 0) continue;
+                int jumped = this.jumped[direction][square];
+                if (jumped != -1 && (enemy >>> jumped & 1) != 0 && (empty >>> landing[direction][square] & 1) != 0)
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes every possible move on the given Position into the given array, starting at index 0.
+     * Multi kills produce one move for every intermediate stopping point, just like the original char[][] generator did.
+     * No Objects are created, so this can be called at every node of the tree search.
+     *
+     * @param isRedTurn Whether or not it is red's turn.
+     * @param position The Position on which to perform the operations.
+     * @param moves The array to write the packed moves into. Must have a length of at least MAX_MOVES.
+     * @return The number of moves that were written.
+     */
+    public int generateMoves(boolean isRedTurn, Position position, long[] moves) {
+        int count = 0;
+        int own = isRedTurn ? position.red : position.white;
+        int enemy = isRedTurn ? position.white : position.red;
+        int kings = position.kings;
+        int empty = ~(position.red | position.white);
+        int kingRow = isRedTurn ? ROW_0 : ROW_7;
+
+        //simple moves: shift every piece that can move in each direction at once
+        for (int direction = 0; direction < 4; direction++) {
+            int destinations = shift(direction, getMovers(isRedTurn, direction, own, kings)) & empty;
+            for (; destinations != 0; destinations &= destinations - 1) {
+                int to = Integer.numberOfTrailingZeros(destinations);
+                int from = NEIGHBORS[opposite(direction)][to];
+                //a piece that reaches the far row is kinged (kings stay kings)
+                moves[count++] = PackedMove.create(from, to, 0, (kings >>> from & 1) == 0 && (kingRow >>> to & 1) != 0);
+            }
+        }
+
+        //flying moves: a king can keep moving in a direction until it reaches a square that is not empty
+        if (areFlyingKingsEnabled()) for (int remaining = own & kings; remaining != 0; remaining &= remaining - 1) {
+            int from = Integer.numberOfTrailingZeros(remaining);
+            for (int direction = 0; direction < 4; direction++) {
+                int to = NEIGHBORS[direction][from];
+                //the first square was already accounted for by the simple moves
+                if (to == -1 || (empty >>> to & 1) == 0) continue;
+                for (to = NEIGHBORS[direction][to]; to != -1 && (empty >>> to & 1) != 0; to = NEIGHBORS[direction][to])
+                    moves[count++] = PackedMove.create(from, to, 0, false);
+            }
+        }
+
+
+        //kills
+        return addKills(isRedTurn, position, moves, count);
+    }
+
+    /**
+     * Writes every possible kill on the given Position into the given array, starting at index 0.
+     * This gives the same kills as generateMoves(), without any of the moves that do not kill.
+     *
+     * @param isRedTurn Whether or not it is red's turn.
+     * @param position The Position on which to perform the operations.
+     * @param moves The array to write the packed moves into. Must have a length of at least MAX_MOVES.
+     * @return The number of kills that were written.
+     */
+    public int generateKills(boolean isRedTurn, Position position, long[] moves) {
+        return addKills(isRedTurn, position, moves, 0);
+    }
+
+    /**
+     * Adds every kill (and every chain of kills) that can be made on the given Position to the given array.
+     *
+     * @param isRedTurn Whether or not it is red's turn.
+     * @param position The Position on which to perform the operations.
+     * @param moves The array to add any new packed moves to.
+     * @param count The number of moves already in the array.
+     * @return The number of moves in the array after adding the new ones.
+     */
+    private int addKills(boolean isRedTurn, Position position, long[] moves, int count) {
+        int own = isRedTurn ? position.red : position.white;
+        int enemy = isRedTurn ? position.white : position.red;
+        int kings = position.kings;
+        int empty = ~(position.red | position.white);
+
+        //find every piece that has an enemy next to it with an empty square behind, then follow each chain of kills
+        int jumpers = 0;
+        for (int direction = 0; direction < 4; direction++) {
+            int landings = shift(direction, shift(direction, getMovers(isRedTurn, direction, own, kings)) & enemy) & empty;
+            jumpers |= shift(opposite(direction), shift(opposite(direction), landings));
+        }
+        jumpers |= butterflyStarts;
+        for (jumpers &= own; jumpers != 0; jumpers &= jumpers - 1) {
+            int from = Integer.numberOfTrailingZeros(jumpers);
+            count = addKills(isRedTurn, own, enemy, kings, from, from, 0, false, moves, count);
+        }
+        return count;
+    }
+
+    /**
+     * Adds every kill (and every chain of kills) that the selected piece can make to the given array.
+     *
+     * @param isRedTurn Whether or not it is red's turn.
+     * @param own A mask of the pieces belonging to the player whose turn it is, after the kills made so far.
+     * @param enemy A mask of the pieces belonging to the other player, after the kills made so far.
+     * @param kings A mask of all the kings, after the kills made so far.
+     * @param from The square that the selected piece started the move from.
+     * @param square The square that the selected piece is currently on.
+     * @param killed A mask of the squares killed so far.
+     * @param isKinged Whether or not the selected piece has been kinged so far.
+     * @param moves The array to add any new packed moves to.
+     * @param count The number of moves already in the array.
+     * @return The number of moves in the array after adding the new ones.
+     */
+    private int addKills(boolean isRedTurn, int own, int enemy, int kings, int from, int square, int killed,
+                         boolean isKinged, long[] moves, int count) {
+        boolean isKing = (kings >>> square & 1) != 0;
+        int empty = ~(own | enemy);
+        for (int direction = 0; direction < 4; direction++) {
+            //pieces can only move towards the opposite side of the board, kings can move in every direction
+            if (!isKing && isRedTurn != (direction == UP_LEFT || direction == UP_RIGHT)) continue;
+            count = addKill(isRedTurn, own, enemy, kings, empty, from, square, killed, isKing, isKinged,
+                    jumped[direction][square], landing[direction][square], moves, count);
+        }
+        return count;
+    }
+
+    /**
+     * Adds a single kill to the given array if it is possible, and then continues the chain of kills.
+     *
+     * @param isRedTurn Whether or not it is red's turn.
+     * @param own A mask of the pieces belonging to the player whose turn it is, after the kills made so far.
+     * @param enemy A mask of the pieces belonging to the other player, after the kills made so far.
+     * @param kings A mask of all the kings, after the kills made so far.
+     * @param empty A mask of all the empty squares, after the kills made so far.
+     * @param from The square that the selected piece started the move from.
+     * @param square The square that the selected piece is currently on.
+     * @param killed A mask of the squares killed so far.
+     * @param isKing Whether or not the selected piece is currently a king.
+     * @param isKinged Whether or not the selected piece has been kinged so far.
+     * @param jumped The square of the piece that would be killed, or -1 if there is none.
+     * @param landing The square that the selected piece would land on.
+     * @param moves The array to add any new packed moves to.
+     * @param count The number of moves already in the array.
+     * @return The number of moves in the array after adding the new ones.
+     */
+    private int addKill(boolean isRedTurn, int own, int enemy, int kings, int empty, int from, int square,
+                        int killed, boolean isKing, boolean isKinged, int jumped, int landing, long[] moves, int count) {
+        if (jumped == -1 || (enemy >>> jumped & 1) == 0 || (empty >>> landing & 1) == 0) return count;
+
+        //prevents killing in the same move as getting a king, unless killAfterKingingEnabled is set to true
+        boolean isKingedNow = !isKing && ((isRedTurn ? ROW_0 : ROW_7) >>> landing & 1) != 0;
+        int newKilled = killed | 1 << jumped;
+        moves[count++] = PackedMove.create(from, landing, newKilled, isKinged || isKingedNow);
+
+        if (!isKingedNow || isKillAfterKingingEnabled()) {
+            int newKings = kings & ~(1 << square) & ~(1 << jumped) | (isKing || isKingedNow ? 1 << landing : 0);
+            count = addKills(isRedTurn, own ^ (1 << square) ^ (1 << landing), enemy & ~(1 << jumped), newKings,
+                    from, landing, newKilled, isKinged || isKingedNow, moves, count);
+        }
+        return count;
+    }
+
+    /**
+     * Finds the squares that a piece passes through when executing the given move.
+     * This is only needed to show the intermediate boards of the move that the AI actually plays,
+     * since a packed move does not hold the order of its kills.
+     *
+     * @param isRedTurn Whether or not it is red's turn.
+     * @param position The Position on which the move will be executed.
+     * @param move The packed move, which must have been generated on the given Position.
+     * @return The squares that the piece lands on in order, starting with the square it starts from.
+     */
+    public int[] getPath(boolean isRedTurn, Position position, long move) {
+        int from = PackedMove.getFrom(move), killed = PackedMove.getKilled(move);
+        //simple and flying moves go straight to their destination
+        if (killed == 0) return new int[]{from, PackedMove.getTo(move)};
+
+        int[] path = new int[Integer.bitCount(killed) + 1];
+        path[0] = from;
+
+        int own = isRedTurn ? position.red : position.white;
+        int enemy = isRedTurn ? position.white : position.red;
+        if (!findPath(isRedTurn, own, enemy, position.kings, from, killed, PackedMove.getTo(move), path, 1))
+            throw new IllegalArgumentException("The move cannot be made on the given Position");
+        return path;
+    }
+
+    /**
+     * Searches for a chain of kills that kills exactly the given squares and finishes on the given square.
+     *
+     * @param isRedTurn Whether or not it is red's turn.
+     * @param own A mask of the pieces belonging to the player whose turn it is, after the kills made so far.
+     * @param enemy A mask of the pieces belonging to the other player, after the kills made so far.
+     * @param kings A mask of all the kings, after the kills made so far.
+     * @param square The square that the selected piece is currently on.
+     * @param remaining A mask of the squares that still need to be killed.
+     * @param to The square that the chain of kills must finish on.
+     * @param path The array to write the landing squares into.
+     * @param length The number of squares already written into path.
+     * @return Whether or not such a chain of kills was found.
+     */
+    private boolean findPath(boolean isRedTurn, int own, int enemy, int kings, int square, int remaining,
+                             int to, int[] path, int length) {
+        if (remaining == 0) return square == to;
+
+        boolean isKing = (kings >>> square & 1) != 0;
+        int empty = ~(own | enemy);
+        for (int direction = 0; direction < 4; direction++) {
+            if (!isKing && isRedTurn != (direction == UP_LEFT || direction == UP_RIGHT)) continue;
+            int jumped = this.jumped[direction][square], landing = this.landing[direction][square];
+            if (jumped == -1 || (remaining >>> jumped & 1) == 0 || (empty >>> landing & 1) == 0) continue;
+
+            //a piece that gets kinged cannot continue killing, unless killAfterKingingEnabled is set to true
+            boolean isKinged = !isKing && ((isRedTurn ? ROW_0 : ROW_7) >>> landing & 1) != 0;
+            if (isKinged && !isKillAfterKingingEnabled() && remaining != 1 << jumped) continue;
+            int newKings = kings & ~(1 << square) & ~(1 << jumped) | (isKing || isKinged ? 1 << landing : 0);
+            path[length] = landing;
+            if (findPath(isRedTurn, own ^ (1 << square) ^ (1 << landing), enemy & ~(1 << jumped), newKings,
+                    landing, remaining & ~(1 << jumped), to, path, length + 1)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param from The square that a piece jumps from.
+     * @param landing The square that the piece lands on.
+     * @return The square of the piece that is killed by the jump, or -1 if the squares are not a jump apart.
+     */
+    public int getJumped(int from, int landing) {
+        for (int direction = 0; direction < 4; direction++) if (this.landing[direction][from] == landing) return jumped[direction][from];
+        return -1;
+    }
+
+    /**
+     * @param isRedTurn Whether or not it is red's turn.
+     * @param direction The direction of the move.
+     * @param own A mask of the pieces belonging to the player whose turn it is.
+     * @param kings A mask of all the kings.
+     * @return A mask of the pieces that are allowed to move in the given direction.
+     */
+    private static int getMovers(boolean isRedTurn, int direction, int own, int kings) {
+        //red pieces can only move up and white pieces can only move down
+        return isRedTurn == (direction == UP_LEFT || direction == UP_RIGHT) ? own : own & kings;
+    }
+
+
+    /**
+     * A MoveGenerator for rules without flying kings or killing after kinging.
+     */
+    private static final class Standard extends MoveGenerator {
+        /**
+         * Creates a new Standard MoveGenerator.
+         *
+         * @param rules The rules that the MoveGenerator will follow.
+         */
+        private Standard(GameRules rules) {
+            super(rules);
+        }
+
+        @Override
+        boolean areFlyingKingsEnabled() {
+            return false;
+        }
+
+        @Override
+        boolean isKillAfterKingingEnabled() {
+            return false;
+        }
+    }
+
+
+    /**
+     * A MoveGenerator for rules with flying kings, but without killing after kinging.
+     */
+    private static final class FlyingKings extends MoveGenerator {
+        /**
+         * Creates a new FlyingKings MoveGenerator.
+         *
+         * @param rules The rules that the MoveGenerator will follow.
+         */
+        private FlyingKings(GameRules rules) {
+            super(rules);
+        }
+
+        @Override
+        boolean areFlyingKingsEnabled() {
+            return true;
+        }
+
+        @Override
+        boolean isKillAfterKingingEnabled() {
+            return false;
+        }
+    }
+
+
+    /**
+     * A MoveGenerator for rules with killing after kinging, but without flying kings.
+     */
+    private static final class KillAfterKinging extends MoveGenerator {
+        /**
+         * Creates a new KillAfterKinging MoveGenerator.
+         *
+         * @param rules The rules that the MoveGenerator will follow.
+         */
+        private KillAfterKinging(GameRules rules) {
+            super(rules);
+        }
+
+        @Override
+        boolean areFlyingKingsEnabled() {
+            return false;
+        }
+
+        @Override
+        boolean isKillAfterKingingEnabled() {
+            return true;
+        }
+    }
+
+
+    /**
+     * A MoveGenerator for rules with both flying kings and killing after kinging.
+     */
+    private static final class FlyingKingsKillAfterKinging extends MoveGenerator {
+        /**
+         * Creates a new FlyingKingsKillAfterKinging MoveGenerator.
+         *
+         * @param rules The rules that the MoveGenerator will follow.
+         */
+        private FlyingKingsKillAfterKinging(GameRules rules) {
+            super(rules);
+        }
+
+        @Override
+        boolean areFlyingKingsEnabled() {
+            return true;
+        }
+
+        @Override
+        boolean isKillAfterKingingEnabled() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.gmail.amaarquadri.checkers.engine;
+
+import java.util.Random;
+
+/**
+ * This interface is what an EngineService needs from the search that picks its moves, so that the same EngineService
+ * can use either a Searcher or a ParallelSearcher, depending on the thread count of its SearchOptions.
+ * A search is started in two steps, so that a stop() that arrives between them is never lost.
+ */
+interface MovePicker {
+    /**
+     * Sets the Tablebase that endgame Positions are looked up in. This must not be called during a search.
+     *
+     * @param tablebase The Tablebase, or null to stop using one. It must have been opened for the same rules.
+     */
+    void setTablebase(Tablebase tablebase);
+
+    /**
+     * Sets the static evaluation of the Positions at the leaves of the tree. This must not be called during a search.
+     *
+     * @param evaluator The Evaluator.
+     */
+    void setEvaluator(Evaluator evaluator);
+
+    /**
+     * Forgets any stop() that was requested before the next search.
+     */
+    void clearStop();
+
+    /**
+     * Changes when the current or next search must stop. It is safe to call this from any Thread.
+     *
+     * @param deadline The System.nanoTime() at which the search must stop, or Long.MAX_VALUE if there is no time limit.
+     */
+    void setDeadline(long deadline);
+
+    /**
+     * Picks the best move for the player whose turn it is using iterative deepening, keeping any stop() that was
+     * requested since clearStop() was called and the deadline that was set with setDeadline().
+     * This lets a search be cancelled safely before it has even started, and lets a ponder search be given its deadline
+     * at any time.
+     *
+     * @param root The Position to pick a move on. It is not modified.
+     * @param isRedTurn Whether or not it is red's turn on the given Position.
+     * @param maxDepth The depth of the last iteration.
+     * @param random Used to choose between moves that are tied for the best value.
+     * @return The best packed move, or PackedMove.NONE if no moves are possible.
+     */
+    long pickMoveUnlessStopped(Position root, boolean isRedTurn, int maxDepth, Random random);
+
+    /**
+     * Predicts the reply to a move from the TranspositionTable that the last search filled.
+     *
+     * @param root The Position that the move is made on. It is not modified.
+     * @param isRedTurn Whether or not it is red's turn on the given Position.
+     * @param move The packed move that was picked on the given Position.
+     * @return The expected packed reply, or PackedMove.NONE if there is no prediction.
+     */
+    long getPredictedReply(Position root, boolean isRedTurn, long move);
+
+    /**
+     * Stops the current search as soon as possible. It is safe to call this from any Thread.
+     */
+    void stop();
+
+    /**
+     * @return The value (from red's perspective) of the move that was picked by the last search.
+     */
+    int getRootValue();
+
+    /**
+     * @return What happened during the last search.
+     */
+    SearchStatistics getStatistics();
+}
@@ -0,0 +1,296 @@
+package com.gmail.amaarquadri.checkers.engine;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * This class looks up good moves for opening Positions in a file that was built ahead of time by OpeningBookBuilder,
+ * so the AI can reply instantly instead of searching Positions that it has already searched in every other game.
+ * The file holds a list of Entries sorted by the key of their Position, and is memory mapped, so a Position is looked up
+ * by binary search without ever reading the whole file.
+ * When a Position has several Entries, one of them is picked at random in proportion to its weight, so the AI does not
+ * play the same game every time.
+ */
+public final class OpeningBook {
+    //STATIC MEMBERS
+
+
+    /**
+     * The first 4 bytes of every file.
+     */
+    private static final int MAGIC = 0x43424B31;
+
+    /**
+     * The number of bytes before the Entries: the magic number, the rules and the number of Entries.
+     */
+    private static final int HEADER_SIZE = 12;
+
+    /**
+     * The number of bytes in every Entry: the key, the move, the weight and the value.
+     */
+    private static final int ENTRY_SIZE = 24;
+
+    /**
+     * @param rules The rules of the game.
+     * @return The name of the file that holds the OpeningBook for the given rules.
+     */
+    public static String getFileName(GameRules rules) {
+        return "book" + rules.getIndex() + ".bin";
+    }
+
+    /**
+     * Opens an OpeningBook file.
+     *
+     * @param file The file to open. If it does not exist, the OpeningBook is empty.
+     * @param rules The rules of the game that will be played.
+     * @return The OpeningBook.
+     * @throws IOException If the file cannot be read, or it is not an OpeningBook for the given rules.
+     */
+    public static OpeningBook open(File file, GameRules rules) throws IOException {
+        if (!file.isFile()) return new OpeningBook(rules, null, 0);
+        MappedByteBuffer buffer;
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        try {
+            //the mapping stays valid after the file is closed
+            buffer = input.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, input.length());
+        } finally {
+            input.close();
+        }
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) throw new IOException("Not an opening book: " + file);
+        if (buffer.getInt(4) != rules.getIndex()) throw new IOException("Opening book for different rules: " + file);
+        int size = buffer.getInt(8);
+        if (buffer.capacity() != HEADER_SIZE + (long) size * ENTRY_SIZE) throw new IOException("Damaged opening book: " + file);
+        return new OpeningBook(rules, buffer, size);
+    }
+
+    /**
+     * Writes an OpeningBook file.
+     *
+     * @param file The file to write.
+     * @param rules The rules of the game that the Entries were found for.
+     * @param entries The Entries to write, in any order.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(File file, GameRules rules, List<Entry> entries) throws IOException {
+        List<Entry> sorted = new ArrayList<>(entries);
+        //open() relies on the Entries being sorted by key, in the same order that the binary search uses
+        Collections.sort(sorted, new Comparator<Entry>() {
+            @Override
+            public int compare(Entry entry1, Entry entry2) {
+                return Long.compare(entry1.key, entry2.key);
+            }
+        });
+
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try {
+            output.writeInt(MAGIC);
+            output.writeInt(rules.getIndex());
+            output.writeInt(sorted.size());
+            for (Entry entry : sorted) {
+                output.writeLong(entry.key);
+                output.writeLong(entry.move);
+                output.writeInt(entry.weight);
+                output.writeInt(entry.value);
+            }
+        } finally {
+            output.close();
+        }
+    }
+
+
+    //INSTANCE VARIABLES
+
+
+    /**
+     * Generates the moves that every Entry is checked against.
+     */
+    private final MoveGenerator moveGenerator;
+
+    /**
+     * The contents of the file, or null if the OpeningBook is empty.
+     * Only absolute reads are used, so it can be read from several Threads at once.
+     */
+    private final MappedByteBuffer buffer;
+
+    /**
+     * The number of Entries.
+     */
+    private final int size;
+
+
+    /**
+     * Creates a new OpeningBook. Use open() instead.
+     *
+     * @param rules The rules of the game that will be played.
+     * @param buffer The contents of the file, or null if the OpeningBook is empty.
+     * @param size The number of Entries.
+     */
+    private OpeningBook(GameRules rules, MappedByteBuffer buffer, int size) {
+        moveGenerator = MoveGenerator.forRules(rules);
+        this.buffer = buffer;
+        this.size = size;
+    }
+
+    /**
+     * @return The number of Entries.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Looks up a move for a Position. It is safe to call this from several Threads at once.
+     *
+     * @param position The Position to look up.
+     * @param isRedTurn Whether or not it is red's turn on the given Position.
+     * @param random Used to pick between the Entries of the Position in proportion to their weights,
+     *               or null to always pick the Entry with the highest weight.
+     * @return The Entry that was picked, or null if the Position is not in the OpeningBook.
+     */
+    public Entry probe(Position position, boolean isRedTurn, Random random) {
+        long key = position.getKey(isRedTurn);
+        //binary search for the first Entry with the key
+        int low = 0, high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (getKey(middle) < key) low = middle + 1;
+            else high = middle;
+        }
+
+        long[] moves = new long[MoveGenerator.MAX_MOVES];
+        int moveCount = moveGenerator.generateMoves(isRedTurn, position, moves);
+        List<Entry> entries = new ArrayList<>();
+        long totalWeight = 0;
+        for (int index = low; index < size && getKey(index) == key; index++) {
+            int offset = HEADER_SIZE + index * ENTRY_SIZE;
+            Entry entry = new Entry(key, buffer.getLong(offset + 8), buffer.getInt(offset + 16), buffer.getInt(offset + 20));
+            //a different Position with the same key must never make the AI play an illegal move
+            if (entry.weight > 0 && contains(moves, moveCount, entry.move)) {
+                entries.add(entry);
+                totalWeight += entry.weight;
+            }
+        }
+        if (entries.isEmpty()) return null;
+
+        Entry picked = entries.get(0);
+        if (random == null) {
+            for (Entry entry : entries) if (entry.weight > picked.weight) picked = entry;
+            return picked;
+        }
+        long target = (long) (random.nextDouble() * totalWeight);
+        for (Entry entry : entries) {
+            picked = entry;
+            target -= entry.weight;
+            if (target < 0) break;
+        }
+        return picked;
+    }
+
+    /**
+     * @param index The index of an Entry.
+     * @return The key of the Entry.
+     */
+    private long getKey(int index) {
+        //the whole file fits in a MappedByteBuffer, so the offset of every Entry fits in an int
+        return buffer.getLong(HEADER_SIZE + index * ENTRY_SIZE);
+    }
+
+    /**
+     * @param moves The packed moves to check.
+     * @param moveCount The number of moves to check.
+     * @param move The packed move to look for.
+     * @return Whether or not the move is one of the moves.
+     */
+    private static boolean contains(long[] moves, int moveCount, long move) {
+        for (int i = 0; i < moveCount; i++) if (moves[i] == move) return true;
+        return false;
+    }
+
+
+    /**
+     * A single move that the OpeningBook suggests for a Position. It is immutable.
+     */
+    public static final class Entry {
+        /**
+         * The key of the Position, from Position.getKey().
+         */
+        private final long key;
+
+        /**
+         * The packed move.
+         */
+        private final long move;
+
+        /**
+         * How often the move is picked compared to the other Entries of the same Position.
+         */
+        private final int weight;
+
+        /**
+         * The value of the move from the perspective of the player whose turn it is.
+         */
+        private final int value;
+
+
+        /**
+         * Creates a new Entry.
+         *
+         * @param key The key of the Position, from Position.getKey().
+         * @param move The packed move.
+         * @param weight How often the move is picked compared to the other Entries of the same Position. Entries with a
+         *               weight of 0 are never picked.
+         * @param value The value of the move from the perspective of the player whose turn it is.
+         */
+        public Entry(long key, long move, int weight, int value) {
+            if (weight < 0) throw new IllegalArgumentException("weight must not be negative");
+            this.key = key;
+            this.move = move;
+            this.weight = weight;
+            this.value = value;
+        }
+
+        /**
+         * @return The key of the Position, from Position.getKey().
+         */
+        public long getKey() {
+            return key;
+        }
+
+        /**
+         * @return The packed move.
+         */
+        public long getMove() {
+            return move;
+        }
+
+        /**
+         * @return How often the move is picked compared to the other Entries of the same Position.
+         */
+        public int getWeight() {
+            return weight;
+        }
+
+        /**
+         * @return The value of the move from the perspective of the player whose turn it is.
+         */
+        public int getValue() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry[move=" + PackedMove.toString(move) + ", weight=" + weight + ", value=" + value + "]";
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.gmail.amaarquadri.checkers.engine;
+
+/**
+ * This class holds static methods for working with moves that are packed into a single long.
+ * A packed move holds everything needed to make and unmake it on a Position:
+ * <ol>
+ * <li>Bits 0-31: A mask of the squares that the move kills.</li>
+ * <li>Bits 32-36: The square that the move starts from.</li>
+ * <li>Bits 37-41: The square that the move finishes on.</li>
+ * <li>Bit 42: Whether or not the move gets the piece kinged.</li>
+ * </ol>
+ * Since a packed move is never 0, 0 can be used to indicate that there is no move.
+ */
+public final class PackedMove {
+    /**
+     * Prevents PackedMove initialization.
+     */
+    private PackedMove() {
+        throw new AssertionError();
+    }
+
+
+    /**
+     * Constant used to indicate that there is no move.
+     */
+    public static final long NONE = 0;
+
+    /**
+     * The bit that holds whether or not the move gets the piece kinged.
+     */
+    private static final long KINGED_BIT = 1L << 42;
+
+
+    /**
+     * Packs a move into a long.
+     *
+     * @param from The square that the move starts from.
+     * @param to The square that the move finishes on.
+     * @param killed A mask of the squares that the move kills.
+     * @param isKinged Whether or not the move gets the piece kinged.
+     * @return The packed move.
+     */
+    public static long create(int from, int to, int killed, boolean isKinged) {
+        return (killed & 0xFFFFFFFFL) | (long) from << 32 | (long) to << 37 | (isKinged ? KINGED_BIT : 0);
+    }
+
+    /**
+     * @param move A packed move.
+     * @return The square that the move starts from.
+     */
+    public static int getFrom(long move) {
+        return (int) (move >>> 32) & 31;
+    }
+
+    /**
+     * @param move A packed move.
+     * @return The square that the move finishes on.
+     */
+    public static int getTo(long move) {
+        return (int) (move >>> 37) & 31;
+    }
+
+    /**
+     * @param move A packed move.
+     * @return A mask of the squares that the move kills.
+     */
+    public static int getKilled(long move) {
+        return (int) move;
+    }
+
+    /**
+     * @param move A packed move.
+     * @return Whether or not the move gets the piece kinged.
+     */
+    public static boolean isKinged(long move) {
+        return (move & KINGED_BIT) != 0;
+    }
+
+    /**
+     * @param move A packed move.
+     * @return Whether or not the move kills at least one piece.
+     */
+    public static boolean isKill(long move) {
+        return (int) move != 0;
+    }
+
+    /**
+     * Returns a human readable description of a packed move, such as "(2, 5)-(3, 4)" or "(2, 5)x(4, 3)".
+     * Squares are written as (horizontal position, vertical position). Only meant for logging.
+     *
+     * @param move A packed move.
+     * @return A description of the move.
+     */
+    public static String toString(long move) {
+        if (move == NONE) return "none";
+        int from = getFrom(move), to = getTo(move);
+        return "(" + Position.getI(from) + ", " + Position.getJ(from) + ")" + (isKill(move) ? "x" : "-") +
+                "(" + Position.getI(to) + ", " + Position.getJ(to) + ")";
+    }
+}
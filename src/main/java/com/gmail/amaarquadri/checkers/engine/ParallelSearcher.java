@@ -0,0 +1,367 @@
+package com.gmail.amaarquadri.checkers.engine;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class picks moves like a Searcher, but spreads the moves of the root Position across the Threads of a ForkJoinPool.
+ * Every iteration of iterative deepening first searches the best move of the last iteration on its own, and then
+ * searches all of the other moves in parallel. The best score found so far is shared through an AtomicInteger, so a move
+ * that is searched after a good move was found gets the same cutoffs that it would get in the sequential search.
+ * Each Thread uses its own Searcher, and they all share a single TranspositionTable.
+ */
+public final class ParallelSearcher implements MovePicker {
+    //STATIC MEMBERS
+
+
+    /**
+     * The ForkJoinPool shared by every ParallelSearcher that is not given its own, with a Thread for every processor.
+     */
+    private static final ForkJoinPool SHARED_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+
+    //INSTANCE VARIABLES
+
+
+    /**
+     * The ForkJoinPool that runs the searches.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Generates the moves of the root Position.
+     */
+    private final MoveGenerator moveGenerator;
+
+    /**
+     * The table of previous search results, shared by every Searcher.
+     */
+    private final TranspositionTable transpositionTable;
+
+    /**
+     * One Searcher for every Thread of the pool.
+     */
+    private final Searcher[] searchers;
+
+    /**
+     * The Searchers that are not searching a move right now.
+     */
+    private final LinkedBlockingQueue<Searcher> idleSearchers;
+
+    /**
+     * The combined SearchStatistics of every Searcher.
+     */
+    private final SearchStatistics statistics;
+
+    /**
+     * The score of the best move found so far in the current iteration, from the perspective of the player whose turn it is.
+     */
+    private final AtomicInteger bestScore;
+
+    /**
+     * The moves of the root Position. The best move of each iteration is moved to the front.
+     */
+    private long[] moves;
+
+    /**
+     * The score of every move in the current iteration, at the same indices as the moves.
+     */
+    private int[] scores;
+
+    /**
+     * Whether or not it is red's turn on the root Position.
+     */
+    private boolean isRedTurn;
+
+    /**
+     * The number of layers to search after each move in the current iteration.
+     */
+    private int depth;
+
+    /**
+     * Set by stop(), or if a Thread is interrupted while waiting for a Searcher.
+     */
+    private volatile boolean isStopRequested;
+
+    /**
+     * The value of the move that was picked by the last call to pickMove().
+     */
+    private int rootValue;
+
+
+    /**
+     * Creates a new ParallelSearcher that uses a ForkJoinPool with a Thread for every processor.
+     *
+     * @param rules The rules of the game that will be searched.
+     * @param transpositionTable The table to remember results in. It must only ever be used for games with the same rules.
+     * @param options Which of the selective search techniques to use. The thread count must be SearchOptions.ROOT_SPLIT.
+     */
+    public ParallelSearcher(GameRules rules, TranspositionTable transpositionTable, SearchOptions options) {
+        this(rules, transpositionTable, options, SHARED_POOL);
+    }
+
+    /**
+     * Creates a new ParallelSearcher.
+     *
+     * @param rules The rules of the game that will be searched.
+     * @param transpositionTable The table to remember results in. It must only ever be used for games with the same rules.
+     * @param options Which of the selective search techniques to use. The thread count must be SearchOptions.ROOT_SPLIT.
+     * @param pool The ForkJoinPool to run the searches in. A Searcher is created for each of its Threads.
+     */
+    public ParallelSearcher(GameRules rules, TranspositionTable transpositionTable, SearchOptions options, ForkJoinPool pool) {
+        if (options.getThreadCount() != SearchOptions.ROOT_SPLIT)
+            throw new IllegalArgumentException("A ParallelSearcher searches on the Threads of its pool, so the thread count must be ROOT_SPLIT");
+        this.pool = pool;
+        moveGenerator = MoveGenerator.forRules(rules);
+        this.transpositionTable = transpositionTable;
+        searchers = new Searcher[pool.getParallelism()];
+        idleSearchers = new LinkedBlockingQueue<>();
+        for (int n = 0; n < searchers.length; n++) {
+            //the Threads of the pool are already the parallelism, so each Searcher searches on its own
+            searchers[n] = new Searcher(rules, transpositionTable, options.withThreadCount(1));
+            idleSearchers.add(searchers[n]);
+        }
+        statistics = new SearchStatistics();
+        bestScore = new AtomicInteger();
+    }
+
+    /**
+     * Picks the best move for the player whose turn it is using iterative deepening, exactly like Searcher.pickMove().
+     * If several moves are tied for the best value, one of them is picked randomly.
+     * This must not be called again until it returns.
+     *
+     * @param root The Position to pick a move on. It is not modified.
+     * @param isRedTurn Whether or not it is red's turn on the given Position.
+     * @param limits The maximum depth and time budget of the search.
+     * @param random Used to choose between moves that are tied for the best value.
+     * @return The best packed move, or PackedMove.NONE if no moves are possible.
+     */
+    public long pickMove(Position root, boolean isRedTurn, SearchLimits limits, Random random) {
+        clearStop();
+        setDeadline(limits.getDeadline());
+        return pickMoveUnlessStopped(root, isRedTurn, limits.getMaxDepth(), random);
+    }
+
+    /**
+     * Forgets any stop() that was requested before the next search.
+     */
+    @Override
+    public void clearStop() {
+        isStopRequested = false;
+        for (Searcher searcher : searchers) searcher.clearStop();
+    }
+
+    /**
+     * Changes when the current or next search must stop. It is safe to call this from any Thread.
+     * A search that is pondering has no deadline until the ponder move is played, and then gets its normal time budget.
+     *
+     * @param deadline The System.nanoTime() at which the search must stop, or Long.MAX_VALUE if there is no time limit.
+     */
+    @Override
+    public void setDeadline(long deadline) {
+        for (Searcher searcher : searchers) searcher.setDeadline(deadline);
+    }
+
+    /**
+     * Sets the Tablebase that endgame Positions are looked up in. This must not be called while searching.
+     *
+     * @param tablebase The Tablebase, or null to stop using one. It must have been opened for the same rules as this
+     *                  ParallelSearcher.
+     */
+    @Override
+    public void setTablebase(Tablebase tablebase) {
+        for (Searcher searcher : searchers) searcher.setTablebase(tablebase);
+    }
+
+    /**
+     * Sets the static evaluation of the Positions at the leaves of the tree. This must not be called while searching.
+     * The TranspositionTable is cleared, since its scores were found with the old Evaluator.
+     *
+     * @param evaluator The Evaluator. The default is MaterialEvaluator.INSTANCE.
+     */
+    @Override
+    public void setEvaluator(Evaluator evaluator) {
+        for (Searcher searcher : searchers) searcher.setEvaluator(evaluator);
+        transpositionTable.clear();
+    }
+
+    /**
+     * Same as pickMove(), except that the stop() and the deadline that were set before this was called are kept.
+     * This lets a search be cancelled safely before it has even started, and lets a ponder search be given its
+     * deadline at any time.
+     *
+     * @param root The Position to pick a move on. It is not modified.
+     * @param isRedTurn Whether or not it is red's turn on the given Position.
+     * @param maxDepth The depth of the last iteration.
+     * @param random Used to choose between moves that are tied for the best value.
+     * @return The best packed move, or PackedMove.NONE if no moves are possible.
+     */
+    @Override
+    public long pickMoveUnlessStopped(Position root, boolean isRedTurn, int maxDepth, Random random) {
+        transpositionTable.newSearch();
+        for (Searcher searcher : searchers) searcher.startRootSearch(root);
+        statistics.reset();
+
+        this.isRedTurn = isRedTurn;
+        moves = new long[MoveGenerator.MAX_MOVES];
+        int moveCount = moveGenerator.generateMoves(isRedTurn, root, moves);
+        rootValue = isRedTurn ? Searcher.LOSS : Searcher.WIN;
+        if (moveCount == 0) return PackedMove.NONE;
+        scores = new int[moveCount];
+
+        //the best move(s) of the last complete iteration (multiple moves will be present if they are all tied for best move)
+        long[] bestMoves = new long[moveCount];
+        int bestMoveCount = 0;
+
+        for (depth = 0; depth <= maxDepth; depth++) {
+            //the first move is searched on its own, so that the other moves have a score to beat
+            scores[0] = searchers[0].searchRootMove(moves[0], isRedTurn, -Searcher.INFINITY, Searcher.INFINITY, depth);
+            if (!isStopped()) {
+                bestScore.set(scores[0]);
+                if (moveCount > 1) pool.invoke(new RootMoveSearch(1, moveCount));
+            }
+            if (isStopped()) {
+                //if the search was stopped before the first iteration finished, any move is better than none
+                if (bestMoveCount == 0) bestMoves[bestMoveCount++] = moves[0];
+                break;
+            }
+
+            //moves that were not searched again exactly are worse than the best score, so they can never be tied with it
+            int iterationBestScore = bestScore.get();
+            bestMoveCount = 0;
+            for (int i = 0; i < moveCount; i++) if (scores[i] == iterationBestScore) bestMoves[bestMoveCount++] = moves[i];
+            rootValue = isRedTurn ? iterationBestScore : -iterationBestScore;
+            statistics.depth = depth;
+
+            //there is nothing to decide if there is only one move, and a won or lost game cannot change with more depth
+            if (moveCount == 1 || Searcher.isProven(iterationBestScore)) break;
+            //the best move of this iteration is the most likely to be the best move of the next one
+            for (int i = 0; i < moveCount; i++) if (moves[i] == bestMoves[0]) {
+                moves[i] = moves[0];
+                moves[0] = bestMoves[0];
+                break;
+            }
+        }
+
+        for (Searcher searcher : searchers) statistics.add(searcher.getStatistics());
+        return bestMoves[random.nextInt(bestMoveCount)];
+    }
+
+    /**
+     * Predicts the reply to a move from the best move that the last search stored in the TranspositionTable for the
+     * Position after it, which is the second move of the principal variation.
+     *
+     * @param root The Position that the move is made on. It is not modified.
+     * @param isRedTurn Whether or not it is red's turn on the given Position.
+     * @param move The packed move that was picked on the given Position.
+     * @return The expected packed reply, or PackedMove.NONE if there is no prediction.
+     */
+    @Override
+    public long getPredictedReply(Position root, boolean isRedTurn, long move) {
+        //every Searcher shares the TranspositionTable, so any of them can read the reply from it
+        return searchers[0].getPredictedReply(root, isRedTurn, move);
+    }
+
+    /**
+     * Stops the current search as soon as possible. It is safe to call this from any Thread.
+     * pickMove() will still return the best move of the last complete iteration.
+     */
+    @Override
+    public void stop() {
+        isStopRequested = true;
+        for (Searcher searcher : searchers) searcher.stop();
+    }
+
+    /**
+     * @return Whether or not the current iteration was cut short, in which case its results must be thrown away.
+     */
+    private boolean isStopped() {
+        if (isStopRequested) return true;
+        for (Searcher searcher : searchers) if (searcher.isStopped()) return true;
+        return false;
+    }
+
+    /**
+     * @return The value (from red's perspective) of the move that was picked by the last call to pickMove().
+     */
+    @Override
+    public int getRootValue() {
+        return rootValue;
+    }
+
+    /**
+     * @return What happened during the last search, added up over every Thread.
+     */
+    @Override
+    public SearchStatistics getStatistics() {
+        return statistics;
+    }
+
+
+    /**
+     * Searches a range of the root moves, splitting it in half until each task searches a single move.
+     */
+    private final class RootMoveSearch extends RecursiveAction {
+        /**
+         * Required since RecursiveAction is Serializable, although a RootMoveSearch is never serialized.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The index of the first move to search.
+         */
+        private final int start;
+
+        /**
+         * The index after the last move to search.
+         */
+        private final int end;
+
+
+        /**
+         * Creates a new RootMoveSearch.
+         *
+         * @param start The index of the first move to search.
+         * @param end The index after the last move to search.
+         */
+        private RootMoveSearch(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > 1) {
+                int middle = (start + end) >>> 1;
+                invokeAll(new RootMoveSearch(start, middle), new RootMoveSearch(middle, end));
+                return;
+            }
+
+            Searcher searcher;
+            try {
+                searcher = idleSearchers.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stop();
+                return;
+            }
+            try {
+                //a null window just below the best score cheaply tells whether this move is at least as good
+                //only then is it searched again to find its exact score, which is needed to tell ties apart
+                int bound = bestScore.get();
+                int score = searcher.searchRootMove(moves[start], isRedTurn, bound - 1, bound, depth);
+                if (score >= bound && !searcher.isStopped())
+                    score = searcher.searchRootMove(moves[start], isRedTurn, bound - 1, Searcher.INFINITY, depth);
+                scores[start] = score;
+                //raise the shared bound, so that the moves searched after this one are compared against it
+                if (!searcher.isStopped()) for (int current = bestScore.get(); score > current; current = bestScore.get())
+                    if (bestScore.compareAndSet(current, score)) break;
+            } finally {
+                idleSearchers.add(searcher);
+            }
+        }
+    }
+}
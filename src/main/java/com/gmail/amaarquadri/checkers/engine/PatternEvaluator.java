@@ -0,0 +1,339 @@
+package com.gmail.amaarquadri.checkers.engine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * This class evaluates a Position by looking up the arrangement of small regions of the board in tables of weights,
+ * so that it can value shapes (like a guarded back rank or a blocked column) that the MaterialEvaluator cannot see.
+ * The weights are read from a file, so they can be tuned without changing the code.
+ * <p>
+ * Every term is worked out from one player's perspective, and the value is red's terms minus white's terms, where
+ * white's terms are found by flipping the board (rotating it half a turn with the colours swapped). This means that both
+ * players are always valued the same way, and a single set of tables covers both of them. The terms are:
+ * <ul>
+ *     <li>MAN and KING: the value of each man and king.</li>
+ *     <li>BACK_RANK: one weight for each of the 16 arrangements of the player's men on their own back rank.</li>
+ *     <li>QUADRANTS: the board is split into four 4x4 quadrants of 8 squares each, and every quadrant has one weight for
+ *     each arrangement of the player's men and the other player's men in it, indexed by 8 bits for each.
+ *     Kings are left out of the quadrants, since they are rare and move around too much to form useful shapes.</li>
+ * </ul>
+ * Every index is gathered from the bitboards with a few shifts and masks, so an evaluation never loops over squares.
+ */
+public final class PatternEvaluator implements Evaluator {
+    //STATIC MEMBERS
+
+
+    /**
+     * The index of the weight of a man.
+     */
+    public static final int MAN = 0;
+
+    /**
+     * The index of the weight of a king.
+     */
+    public static final int KING = 1;
+
+    /**
+     * The index of the first of the 16 back rank weights.
+     */
+    public static final int BACK_RANK = 2;
+
+    /**
+     * The number of quadrants.
+     */
+    public static final int QUADRANT_COUNT = 4;
+
+    /**
+     * The number of weights of each quadrant: 8 bits for the player's men and 8 bits for the other player's men.
+     */
+    public static final int QUADRANT_SIZE = 1 << 16;
+
+    /**
+     * The index of the first weight of the first quadrant. Quadrant q starts at QUADRANTS + q * QUADRANT_SIZE.
+     */
+    public static final int QUADRANTS = BACK_RANK + 16;
+
+    /**
+     * The total number of weights.
+     */
+    public static final int WEIGHT_COUNT = QUADRANTS + QUADRANT_COUNT * QUADRANT_SIZE;
+
+    /**
+     * The most terms that getFeatures() can list for a single Position: 7 for each player.
+     */
+    public static final int MAX_FEATURES = 14;
+
+    /**
+     * The default name of the weights file.
+     */
+    public static final String DEFAULT_FILE_NAME = "weights.bin";
+
+    /**
+     * The first 4 bytes of every weights file.
+     */
+    private static final int MAGIC = 0x43455731;
+
+    /**
+     * Every value must be smaller than this, which keeps it far from Searcher.WIN, and keeps the delta pruning bounds of
+     * the quiescence search from overflowing.
+     */
+    private static final long MAX_VALUE = 1 << 30;
+
+    /**
+     * Reads a weights file that was written by write().
+     *
+     * @param file The file to read.
+     * @return The PatternEvaluator.
+     * @throws IOException If the file cannot be read, or it is not a weights file.
+     */
+    public static PatternEvaluator open(File file) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            if (input.readInt() != MAGIC) throw new IOException("Not a weights file: " + file);
+            if (input.readInt() != WEIGHT_COUNT) throw new IOException("Weights file for a different layout: " + file);
+            int[] weights = new int[WEIGHT_COUNT];
+            for (int i = 0; i < WEIGHT_COUNT; i++) weights[i] = input.readInt();
+            try {
+                return new PatternEvaluator(weights);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Weights out of range in " + file, e);
+            }
+        } finally {
+            input.close();
+        }
+    }
+
+    /**
+     * Creates a PatternEvaluator that plays like the MaterialEvaluator, for a starting point to tune from.
+     * Every man is worth the same as it is there, plus the value of how far it has advanced and whether it is on an edge,
+     * which only depend on its own square and so go in the quadrant tables. Kings get no positional value.
+     *
+     * @return The PatternEvaluator.
+     */
+    public static PatternEvaluator createDefault() {
+        int[] weights = new int[WEIGHT_COUNT];
+        weights[MAN] = Position.PIECE_VALUE;
+        weights[KING] = Position.KING_VALUE;
+        for (int quadrant = 0; quadrant < QUADRANT_COUNT; quadrant++) for (int index = 0; index < QUADRANT_SIZE; index++) {
+            int value = 0;
+            for (int bit = 0; bit < 8; bit++) if ((index & 1 << bit) != 0) {
+                //the inverse of gather()
+                int square = getQuadrantShift(quadrant) + 4 * (bit >> 1) + (bit & 1);
+                //the square value of a red man, without the value of the man itself
+                value += Position.getSquareValue(1 << square, 0, 0) - Position.PIECE_VALUE;
+            }
+            weights[QUADRANTS + quadrant * QUADRANT_SIZE + index] = value;
+        }
+        return new PatternEvaluator(weights);
+    }
+
+    /**
+     * Lists the terms of evaluate() for a Position, for tools that tune the weights.
+     * evaluate() is the sum of weights[indices[n]] * coefficients[n] for every n less than the returned count,
+     * so the value is linear in the weights.
+     *
+     * @param position The Position. It is not modified.
+     * @param indices Filled with the index of the weight of each term. It must have room for MAX_FEATURES terms.
+     * @param coefficients Filled with what the weight of each term is multiplied by: the number of pieces for MAN and KING,
+     *                     and 1 or -1 for the tables, negated for white's terms.
+     * @return The number of terms.
+     */
+    public static int getFeatures(Position position, int[] indices, int[] coefficients) {
+        int red = position.red, white = position.white, kings = position.kings;
+        int count = getFeatures(red, white, kings, 1, indices, coefficients, 0);
+        return getFeatures(Integer.reverse(white), Integer.reverse(red), Integer.reverse(kings), -1, indices, coefficients, count);
+    }
+
+    /**
+     * Lists the terms of one player, in the same way as evaluate(int, int, int) adds them up.
+     *
+     * @param own The player's pieces, from the perspective of red.
+     * @param opponent The other player's pieces, from the perspective of red.
+     * @param kings The kings of both players, from the perspective of red.
+     * @param sign 1 for red's terms, or -1 for white's terms.
+     * @param indices Filled with the index of the weight of each term, starting at count.
+     * @param coefficients Filled with what the weight of each term is multiplied by, starting at count.
+     * @param count The number of terms that were already listed.
+     * @return The number of terms that are listed now.
+     */
+    private static int getFeatures(int own, int opponent, int kings, int sign, int[] indices, int[] coefficients, int count) {
+        int men = own & ~kings, opponentMen = opponent & ~kings;
+        indices[count] = MAN;
+        coefficients[count++] = sign * Integer.bitCount(men);
+        indices[count] = KING;
+        coefficients[count++] = sign * Integer.bitCount(own & kings);
+        indices[count] = BACK_RANK + getBackRankIndex(men);
+        coefficients[count++] = sign;
+        for (int quadrant = 0; quadrant < QUADRANT_COUNT; quadrant++) {
+            indices[count] = QUADRANTS + quadrant * QUADRANT_SIZE + getQuadrantIndex(men, opponentMen, quadrant);
+            coefficients[count++] = sign;
+        }
+        return count;
+    }
+
+    /**
+     * @param quadrant The number of a quadrant, from 0 to 3. The quadrant covers columns 4 * (quadrant / 2) to
+     *                 4 * (quadrant / 2) + 3 and rows 4 * (quadrant % 2) to 4 * (quadrant % 2) + 3.
+     * @return How far a bitboard must be shifted right to move the first square of the quadrant to bit 0.
+     */
+    private static int getQuadrantShift(int quadrant) {
+        return 16 * (quadrant >> 1) + 2 * (quadrant & 1);
+    }
+
+    /**
+     * Gathers the 8 squares of a quadrant into a byte. Each column of the quadrant is 2 adjacent bits of the bitboard,
+     * and the columns are 4 bits apart.
+     *
+     * @param bits A bitboard that was shifted right by getQuadrantShift().
+     * @return The squares of the quadrant, as 8 bits.
+     */
+    private static int gather(int bits) {
+        return bits & 0x3 | bits >>> 2 & 0xC | bits >>> 4 & 0x30 | bits >>> 6 & 0xC0;
+    }
+
+    /**
+     * @param men The player's men, from the perspective of red.
+     * @return The index of the arrangement of the men on red's back rank (bits 3, 11, 19 and 27), from 0 to 15.
+     */
+    static int getBackRankIndex(int men) {
+        return men >>> 3 & 1 | men >>> 10 & 2 | men >>> 17 & 4 | men >>> 24 & 8;
+    }
+
+    /**
+     * @param men The player's men, from the perspective of red.
+     * @param opponentMen The other player's men, from the perspective of red.
+     * @param quadrant The number of the quadrant, from 0 to 3.
+     * @return The index of the arrangement of the men in the quadrant, relative to the first weight of the quadrant.
+     */
+    static int getQuadrantIndex(int men, int opponentMen, int quadrant) {
+        int shift = getQuadrantShift(quadrant);
+        return gather(men >>> shift) | gather(opponentMen >>> shift) << 8;
+    }
+
+
+    //INSTANCE VARIABLES
+
+
+    /**
+     * The weights, laid out as described by MAN, KING, BACK_RANK and QUADRANTS.
+     */
+    private final int[] weights;
+
+    /**
+     * The bound returned by getMaxKillGain().
+     */
+    private final int maxKillGain;
+
+    /**
+     * The bound returned by getMaxMoveGain().
+     */
+    private final int maxMoveGain;
+
+
+    /**
+     * Creates a new PatternEvaluator.
+     *
+     * @param weights The weights, laid out as described by MAN, KING, BACK_RANK and QUADRANTS. They are copied.
+     * @throws IllegalArgumentException If there are not WEIGHT_COUNT weights, or they could make a value too large.
+     */
+    public PatternEvaluator(int[] weights) {
+        if (weights.length != WEIGHT_COUNT) throw new IllegalArgumentException("There must be " + WEIGHT_COUNT + " weights");
+        this.weights = weights.clone();
+
+        //the most that the patterns of one player can change by, since every pattern term can change completely
+        long patternRange = getRange(BACK_RANK, 16, false);
+        for (int quadrant = 0; quadrant < QUADRANT_COUNT; quadrant++)
+            patternRange += getRange(QUADRANTS + quadrant * QUADRANT_SIZE, QUADRANT_SIZE, true);
+        long maxPieceValue = Math.max(Math.abs((long) weights[MAN]), Math.abs((long) weights[KING]));
+        if (24 * maxPieceValue + 4 * patternRange >= MAX_VALUE) throw new IllegalArgumentException("The weights are too large");
+
+        maxKillGain = Math.max(0, Math.max(weights[MAN], weights[KING]));
+        //a move can change the patterns of both players, and a man can be kinged
+        maxMoveGain = (int) (2 * patternRange + Math.max(0, (long) weights[KING] - weights[MAN]));
+    }
+
+    /**
+     * @param start The index of the first weight of a table.
+     * @param length The number of weights in the table.
+     * @param isQuadrant Whether or not the table is a quadrant, whose indices can be impossible (with a square holding both
+     *                   players' men). The weights of impossible indices are never used, so they are skipped.
+     * @return The largest weight of the table minus the smallest one.
+     */
+    private long getRange(int start, int length, boolean isQuadrant) {
+        long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+        for (int index = 0; index < length; index++) {
+            if (isQuadrant && (index & index >>> 8 & 0xFF) != 0) continue;
+            min = Math.min(min, weights[start + index]);
+            max = Math.max(max, weights[start + index]);
+        }
+        return max - min;
+    }
+
+    /**
+     * @return A copy of the weights, laid out as described by MAN, KING, BACK_RANK and QUADRANTS.
+     */
+    public int[] getWeights() {
+        return weights.clone();
+    }
+
+    /**
+     * Writes the weights to a file that open() can read.
+     *
+     * @param file The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(File file) throws IOException {
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try {
+            output.writeInt(MAGIC);
+            output.writeInt(WEIGHT_COUNT);
+            for (int weight : weights) output.writeInt(weight);
+        } finally {
+            output.close();
+        }
+    }
+
+    @Override
+    public int evaluate(Position position) {
+        int red = position.red, white = position.white, kings = position.kings;
+        return evaluate(red, white, kings) - evaluate(Integer.reverse(white), Integer.reverse(red), Integer.reverse(kings));
+    }
+
+    /**
+     * @param own The player's pieces, from the perspective of red.
+     * @param opponent The other player's pieces, from the perspective of red.
+     * @param kings The kings of both players, from the perspective of red.
+     * @return The sum of the terms of the player.
+     */
+    private int evaluate(int own, int opponent, int kings) {
+        int men = own & ~kings, opponentMen = opponent & ~kings;
+        return weights[MAN] * Integer.bitCount(men) + weights[KING] * Integer.bitCount(own & kings) +
+                weights[BACK_RANK + getBackRankIndex(men)] +
+                weights[QUADRANTS + getQuadrantIndex(men, opponentMen, 0)] +
+                weights[QUADRANTS + QUADRANT_SIZE + getQuadrantIndex(men, opponentMen, 1)] +
+                weights[QUADRANTS + 2 * QUADRANT_SIZE + getQuadrantIndex(men, opponentMen, 2)] +
+                weights[QUADRANTS + 3 * QUADRANT_SIZE + getQuadrantIndex(men, opponentMen, 3)];
+    }
+
+    @Override
+    public int getMaxKillGain() {
+        return maxKillGain;
+    }
+
+    @Override
+    public int getMaxMoveGain() {
+        return maxMoveGain;
+    }
+
+    @Override
+    public String toString() {
+        return "PatternEvaluator";
+    }
+}
@@ -0,0 +1,424 @@
+package com.gmail.amaarquadri.checkers.engine;
+
+/**
+ * This class represents the pieces on a board using three 32-bit masks, with one bit for every dark square.
+ * Bit n represents the same square as the (n + 1)th character of a serialized board (the first character holds the turn).
+ * Therefore the square at horizontal position i and vertical position j is held in bit 4 * i + j / 2.
+ * Positions are mutable so that the AI can make and unmake moves on a single instance instead of creating new boards.
+ */
+public final class Position {
+    //STATIC MEMBERS
+
+
+    /**
+     * The serialization of the board at the start of a game, with red to move.
+     */
+    public static final String INITIAL_SERIALIZATION = "TwErrwwErwErrwwErwErrwwErwErrwwEr";
+
+    /**
+     * A mask of the squares in the left-most and right-most columns.
+     */
+    private static final int EDGES = 0xF000000F;
+
+    /**
+     * The value of a piece (that is not a king) from the perspective of its owner, not counting its position.
+     */
+    static final int PIECE_VALUE = 10000000;
+
+    /**
+     * The value of a king from the perspective of its owner, not counting its position.
+     */
+    static final int KING_VALUE = 19000000;
+
+    /**
+     * The value of every type of piece (such as Zobrist.RED_PIECE) on every square from red's perspective,
+     * counting every term of getRawValue() except for the one that depends on the number of pieces.
+     */
+    private static final int[][] SQUARE_VALUES = new int[4][32];
+
+    static {
+        for (int square = 0; square < 32; square++) {
+            int j = getJ(square), edgeValue = (EDGES >>> square & 1) != 0 ? 200 : 0;
+            //pieces that are not kings are worth more the closer they are to being kinged
+            SQUARE_VALUES[Zobrist.RED_PIECE][square] = PIECE_VALUE + 10000 * (7 - j) + edgeValue;
+            SQUARE_VALUES[Zobrist.RED_KING][square] = KING_VALUE + edgeValue;
+            SQUARE_VALUES[Zobrist.WHITE_PIECE][square] = -PIECE_VALUE - 10000 * j - edgeValue;
+            SQUARE_VALUES[Zobrist.WHITE_KING][square] = -KING_VALUE - edgeValue;
+        }
+    }
+
+    /**
+     * Calculates the part of getRawValue() that depends on the squares of the pieces from scratch.
+     *
+     * @param red A mask of all the squares that contain a red piece or a red king.
+     * @param white A mask of all the squares that contain a white piece or a white king.
+     * @param kings A mask of all the squares that contain a king (of either colour).
+     * @return The sum of SQUARE_VALUES for every piece.
+     */
+    static int getSquareValue(int red, int white, int kings) {
+        int value = 0;
+        for (int remaining = red | white; remaining != 0; remaining &= remaining - 1) {
+            int square = Integer.numberOfTrailingZeros(remaining);
+            value += SQUARE_VALUES[Zobrist.getType((red >>> square & 1) != 0, (kings >>> square & 1) != 0)][square];
+        }
+        return value;
+    }
+
+
+    //INSTANCE VARIABLES
+
+
+    /**
+     * A mask of all the squares that contain a red piece or a red king.
+     */
+    int red;
+
+    /**
+     * A mask of all the squares that contain a white piece or a white king.
+     */
+    int white;
+
+    /**
+     * A mask of all the squares that contain a king (of either colour).
+     */
+    int kings;
+
+    /**
+     * The xor of the Zobrist numbers for every piece. This is kept up to date by make() and unmake().
+     * Whose turn it is is not stored in a Position, so it is only added in by getKey().
+     */
+    private long pieceKey;
+
+    /**
+     * The sum of SQUARE_VALUES for every piece. This is kept up to date by make() and unmake(),
+     * so that getRawValue() never has to look at every square.
+     */
+    private int squareValue;
+
+
+    /**
+     * Creates a new Position from the given masks.
+     *
+     * @param red A mask of all the squares that contain a red piece or a red king.
+     * @param white A mask of all the squares that contain a white piece or a white king.
+     * @param kings A mask of all the squares that contain a king (of either colour).
+     */
+    public Position(int red, int white, int kings) {
+        this.red = red;
+        this.white = white;
+        this.kings = kings;
+        pieceKey = Zobrist.getPieceKey(red, white, kings);
+        squareValue = getSquareValue(red, white, kings);
+    }
+
+    /**
+     * Creates a new Position that is a copy of the given Position.
+     *
+     * @param position The Position to copy.
+     */
+    public Position(Position position) {
+        set(position);
+    }
+
+    /**
+     * Sets this Position to be a copy of the given Position.
+     *
+     * @param position The Position to copy.
+     */
+    public void set(Position position) {
+        red = position.red;
+        white = position.white;
+        kings = position.kings;
+        pieceKey = position.pieceKey;
+        squareValue = position.squareValue;
+    }
+
+    /**
+     * Creates a Position from an 8x8 char[][] consisting only of 'r' 'w' 'R' 'W' and 'E'.
+     *
+     * @param board The 8x8 char[][] to convert.
+     * @return The resulting Position.
+     */
+    public static Position fromCharArray(char[][] board) {
+        int red = 0, white = 0, kings = 0;
+        //only need to loop over odd squares
+        for (int i = 0; i < 8; i++) for (int j = (i + 1) % 2; j < 8; j += 2) {
+            int bit = 1 << getSquare(i, j);
+            switch (board[i][j]) {
+                case 'r': red |= bit; break;
+                case 'R': red |= bit; kings |= bit; break;
+                case 'w': white |= bit; break;
+                case 'W': white |= bit; kings |= bit;
+            }
+        }
+        return new Position(red, white, kings);
+    }
+
+    /**
+     * Creates an 8x8 char[][] consisting only of 'r' 'w' 'R' 'W' and 'E' that represents this Position.
+     *
+     * @return The resulting 8x8 char[][].
+     */
+    public char[][] toCharArray() {
+        char[][] board = new char[8][8];
+        for (int i = 0; i < 8; i++) for (int j = 0; j < 8; j++) {
+            //light squares can never hold a piece
+            if ((i + j) % 2 == 0) {
+                board[i][j] = 'E';
+                continue;
+            }
+            int bit = 1 << getSquare(i, j);
+            if ((red & bit) != 0) board[i][j] = (kings & bit) != 0 ? 'R' : 'r';
+            else if ((white & bit) != 0) board[i][j] = (kings & bit) != 0 ? 'W' : 'w';
+            else board[i][j] = 'E';
+        }
+        return board;
+    }
+
+    /**
+     * Creates a Position from a serialized board, in the same 33 character format as CheckerBoard.getSerialization().
+     * The first character holds whose turn it is ('T' for red and 'F' for white), which can be read with isRedTurn().
+     * The rest hold the dark squares in the order of their bits, each being one of 'r' 'w' 'R' 'W' and 'E'.
+     *
+     * @param serializedBoard The serialized board to convert.
+     * @return The resulting Position.
+     */
+    public static Position fromSerialization(String serializedBoard) {
+        //the turn is validated here so that a bad serialization is caught no matter which method reads it first
+        isRedTurn(serializedBoard);
+        int red = 0, white = 0, kings = 0;
+        for (int square = 0; square < 32; square++) {
+            int bit = 1 << square;
+            switch (serializedBoard.charAt(square + 1)) {
+                case 'r': red |= bit; break;
+                case 'R': red |= bit; kings |= bit; break;
+                case 'w': white |= bit; break;
+                case 'W': white |= bit; kings |= bit; break;
+                case 'E': break;
+                default: throw new IllegalArgumentException("Invalid square in serialized board: " + serializedBoard);
+            }
+        }
+        return new Position(red, white, kings);
+    }
+
+    /**
+     * @param serializedBoard A serialized board, in the same format as CheckerBoard.getSerialization().
+     * @return Whether or not it is red's turn on the serialized board.
+     */
+    public static boolean isRedTurn(String serializedBoard) {
+        if (serializedBoard.length() != 33) throw new IllegalArgumentException("A serialized board must have 33 characters");
+        switch (serializedBoard.charAt(0)) {
+            case 'T': return true;
+            case 'F': return false;
+            default: throw new IllegalArgumentException("Invalid turn in serialized board: " + serializedBoard);
+        }
+    }
+
+    /**
+     * Returns a String serializing this Position, in the same format as CheckerBoard.getSerialization().
+     *
+     * @param isRedTurn Whether or not it is red's turn.
+     * @return The serialized board.
+     */
+    public String getSerialization(boolean isRedTurn) {
+        char[] result = new char[33];
+        result[0] = isRedTurn ? 'T' : 'F';
+        for (int square = 0; square < 32; square++) {
+            if ((red >>> square & 1) != 0) result[square + 1] = (kings >>> square & 1) != 0 ? 'R' : 'r';
+            else if ((white >>> square & 1) != 0) result[square + 1] = (kings >>> square & 1) != 0 ? 'W' : 'w';
+            else result[square + 1] = 'E';
+        }
+        return new String(result);
+    }
+
+    /**
+     * @param i The horizontal position of a dark square.
+     * @param j The vertical position of a dark square.
+     * @return The index of the bit that represents the given square.
+     */
+    public static int getSquare(int i, int j) {
+        return 4 * i + j / 2;
+    }
+
+    /**
+     * @param square The index of the bit that represents a square.
+     * @return The horizontal position of the square.
+     */
+    public static int getI(int square) {
+        return square >> 2;
+    }
+
+    /**
+     * @param square The index of the bit that represents a square.
+     * @return The vertical position of the square.
+     */
+    public static int getJ(int square) {
+        //dark squares are on odd rows in even columns and on even rows in odd columns
+        return 2 * (square & 3) + 1 - ((square >> 2) & 1);
+    }
+
+
+    /**
+     * @return A mask of all the squares that contain a red piece or a red king.
+     */
+    public int getRed() {
+        return red;
+    }
+
+    /**
+     * @return A mask of all the squares that contain a white piece or a white king.
+     */
+    public int getWhite() {
+        return white;
+    }
+
+    /**
+     * @return A mask of all the squares that contain a king (of either colour).
+     */
+    public int getKings() {
+        return kings;
+    }
+
+    /**
+     * Returns the 64-bit Zobrist key of this Position. Equal Positions always have equal keys,
+     * and different Positions almost never do, so the key can be used to identify a Position.
+     *
+     * @param isRedTurn Whether or not it is red's turn.
+     * @return The key of this Position with the given player to move.
+     */
+    public long getKey(boolean isRedTurn) {
+        return isRedTurn ? pieceKey ^ Zobrist.RED_TURN : pieceKey;
+    }
+
+
+    //MAKE/UNMAKE
+
+
+    /**
+     * Executes a move on this Position in place.
+     * The piece on the move's from square can belong to either player.
+     * A move finishes where it started if a king kills in a loop.
+     *
+     * @param move The packed move to execute.
+     * @return A mask of the killed squares that held kings. This must be passed to unmake() to undo the move.
+     */
+    public int make(long move) {
+        int from = PackedMove.getFrom(move), killed = PackedMove.getKilled(move);
+        //xor is used so that a move that finishes where it started leaves the piece in place
+        int moved = 1 << from ^ 1 << PackedMove.getTo(move);
+        int killedKings = killed & kings;
+        boolean isRed = (red >>> from & 1) != 0, isKing = (kings >>> from & 1) != 0;
+        pieceKey ^= getKeyChange(move, isRed, isKing, killedKings);
+        squareValue += getValueChange(move, isRed, isKing, killedKings);
+        if (isRed) {
+            red ^= moved;
+            white &= ~killed;
+        }
+        else {
+            white ^= moved;
+            red &= ~killed;
+        }
+        kings &= ~killed;
+        if (PackedMove.isKinged(move)) kings |= 1 << PackedMove.getTo(move);
+        else if (isKing) kings ^= moved;
+        //run with assertions enabled (java -ea) to check every incremental update against a full evaluation
+        assert squareValue == getSquareValue(red, white, kings) : "Incremental evaluation is wrong after make()";
+        return killedKings;
+    }
+
+    /**
+     * Undoes a move that was executed with make(). Moves must be undone in the reverse order that they were made.
+     *
+     * @param move The packed move to undo.
+     * @param killedKings The value that was returned by make().
+     */
+    public void unmake(long move, int killedKings) {
+        int to = PackedMove.getTo(move), killed = PackedMove.getKilled(move);
+        int moved = 1 << PackedMove.getFrom(move) ^ 1 << to;
+        if ((red >>> to & 1) != 0) {
+            red ^= moved;
+            white |= killed;
+        }
+        else {
+            white ^= moved;
+            red |= killed;
+        }
+        if (PackedMove.isKinged(move)) kings &= ~(1 << to);
+        else if ((kings >>> to & 1) != 0) kings ^= moved;
+        kings |= killedKings;
+        //the Position is back to how it was before make(), so the same change can be calculated again
+        int from = PackedMove.getFrom(move);
+        boolean isRed = (red >>> from & 1) != 0, isKing = (kings >>> from & 1) != 0;
+        pieceKey ^= getKeyChange(move, isRed, isKing, killedKings);
+        squareValue -= getValueChange(move, isRed, isKing, killedKings);
+        assert squareValue == getSquareValue(red, white, kings) : "Incremental evaluation is wrong after unmake()";
+    }
+
+    /**
+     * Calculates how a move changes the key. Since keys are combined with xor, the same change undoes the move.
+     *
+     * @param move The packed move.
+     * @param isRed Whether or not the moving piece is red.
+     * @param isKing Whether or not the moving piece was a king before the move.
+     * @param killedKings A mask of the killed squares that held kings.
+     * @return The value to xor the key with.
+     */
+    private static long getKeyChange(long move, boolean isRed, boolean isKing, int killedKings) {
+        int to = PackedMove.getTo(move);
+        long change = Zobrist.PIECES[Zobrist.getType(isRed, isKing)][PackedMove.getFrom(move)] ^
+                Zobrist.PIECES[Zobrist.getType(isRed, isKing || PackedMove.isKinged(move))][to];
+        for (int killed = PackedMove.getKilled(move); killed != 0; killed &= killed - 1) {
+            int square = Integer.numberOfTrailingZeros(killed);
+            change ^= Zobrist.PIECES[Zobrist.getType(!isRed, (killedKings >>> square & 1) != 0)][square];
+        }
+        return change;
+    }
+
+    /**
+     * Calculates how a move changes squareValue. The same change is subtracted to undo the move.
+     *
+     * @param move The packed move.
+     * @param isRed Whether or not the moving piece is red.
+     * @param isKing Whether or not the moving piece was a king before the move.
+     * @param killedKings A mask of the killed squares that held kings.
+     * @return The value to add to squareValue.
+     */
+    private static int getValueChange(long move, boolean isRed, boolean isKing, int killedKings) {
+        int change = SQUARE_VALUES[Zobrist.getType(isRed, isKing || PackedMove.isKinged(move))][PackedMove.getTo(move)] -
+                SQUARE_VALUES[Zobrist.getType(isRed, isKing)][PackedMove.getFrom(move)];
+        for (int killed = PackedMove.getKilled(move); killed != 0; killed &= killed - 1) {
+            int square = Integer.numberOfTrailingZeros(killed);
+            change -= SQUARE_VALUES[Zobrist.getType(!isRed, (killedKings >>> square & 1) != 0)][square];
+        }
+        return change;
+    }
+
+
+    //EVALUATION
+
+
+    /**
+     * An upper bound on how much a single killed piece can change getRawValue() in favor of the player who killed it,
+     * including the change in position of the piece that made the kill.
+     * A king is worth 19000000, and the other terms change by less than 100000 for every piece killed.
+     */
+    static final int MAX_KILL_GAIN = 19100000;
+
+    /**
+     * An upper bound on how much kinging a piece can change getRawValue() in favor of its owner.
+     */
+    static final int MAX_KINGING_GAIN = KING_VALUE - PIECE_VALUE;
+
+    /**
+     * Returns the value of this Position from red's perspective.
+     * Every term except for the number of pieces is kept up to date by make() and unmake(), so this takes constant time.
+     *
+     * @return The value of this Position from red's perspective.
+     */
+    public int getRawValue() {
+        int value = squareValue;
+        //the player who is ahead is better off with fewer pieces on the board, so they are encouraged to trade
+        int pieceCount = Integer.bitCount(red | white);
+        return value + (value > 0 ? 24 - pieceCount : pieceCount - 24);
+    }
+}
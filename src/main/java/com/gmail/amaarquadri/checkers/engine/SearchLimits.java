@@ -0,0 +1,94 @@
+package com.gmail.amaarquadri.checkers.engine;
+
+/**
+ * This class holds how long the AI is allowed to think about a move.
+ * The search goes one layer deeper at a time, and stops when either the maximum depth is reached or the time runs out.
+ */
+public final class SearchLimits {
+    /**
+     * Constant used to indicate that there is no time limit.
+     */
+    public static final long NO_TIME_LIMIT = 0;
+
+    /**
+     * How many times the time budget a ponder search can use before its ponder move is played.
+     */
+    private static final int PONDER_TIME_MULTIPLE = 4;
+
+    /**
+     * The maximum number of layers to search after each possible move.
+     */
+    private final int maxDepth;
+
+    /**
+     * The time budget in milliseconds, or NO_TIME_LIMIT.
+     */
+    private final long timeMillis;
+
+
+    /**
+     * Creates a new SearchLimits.
+     *
+     * @param maxDepth The maximum number of layers to search after each possible move.
+     * @param timeMillis The time budget in milliseconds, or NO_TIME_LIMIT.
+     */
+    public SearchLimits(int maxDepth, long timeMillis) {
+        if (maxDepth < 0 || maxDepth >= Searcher.MAX_DEPTH - 1)
+            throw new IllegalArgumentException("maxDepth must be between 0 and " + (Searcher.MAX_DEPTH - 2));
+        if (timeMillis < 0) throw new IllegalArgumentException("timeMillis cannot be negative");
+        this.maxDepth = maxDepth;
+        this.timeMillis = timeMillis;
+    }
+
+    /**
+     * @param depth The number of layers to search after each possible move.
+     * @return A SearchLimits that always searches to the given depth, no matter how long it takes.
+     */
+    public static SearchLimits ofDepth(int depth) {
+        return new SearchLimits(depth, NO_TIME_LIMIT);
+    }
+
+    /**
+     * @return The maximum number of layers to search after each possible move.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * @return The time budget in milliseconds, or NO_TIME_LIMIT.
+     */
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    /**
+     * @return Whether or not there is a time budget.
+     */
+    public boolean hasTimeLimit() {
+        return timeMillis != NO_TIME_LIMIT;
+    }
+
+    /**
+     * @return The System.nanoTime() at which a search that starts now must stop, or Long.MAX_VALUE if there is no time limit.
+     */
+    public long getDeadline() {
+        return hasTimeLimit() ? System.nanoTime() + timeMillis * 1000000 : Long.MAX_VALUE;
+    }
+
+    /**
+     * A ponder search is given more time than a normal search, since the user usually takes longer to move than the AI,
+     * but it must still stop eventually so that the AI does not keep every processor busy while the user is away.
+     *
+     * @return The System.nanoTime() at which a ponder search that starts now must stop if its ponder move has not been
+     *         played by then, or Long.MAX_VALUE if there is no time limit.
+     */
+    public long getPonderDeadline() {
+        return hasTimeLimit() ? System.nanoTime() + PONDER_TIME_MULTIPLE * timeMillis * 1000000 : Long.MAX_VALUE;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchLimits[maxDepth=" + maxDepth + ", timeMillis=" + (hasTimeLimit() ? timeMillis : "none") + "]";
+    }
+}
@@ -0,0 +1,146 @@
+package com.gmail.amaarquadri.checkers.engine;
+
+/**
+ * This class holds which of the selective search techniques a Searcher uses, how many Threads it searches with,
+ * and how big the EvaluationCache of every Thread is.
+ * The selective techniques make the search much faster, but they can miss a move that only turns out to be good deep in
+ * the tree, so each of them can be turned off to measure what it gains and what it costs.
+ */
+public final class SearchOptions {
+    /**
+     * The thread count that splits the moves of the root across the Threads of a ForkJoinPool with a ParallelSearcher,
+     * instead of searching the whole tree on every Thread with a Searcher. The pool has a Thread for every processor,
+     * unless the ParallelSearcher is given a different one.
+     */
+    public static final int ROOT_SPLIT = 0;
+
+    /**
+     * The default size of the EvaluationCache of every Thread, in kilobytes.
+     */
+    public static final int DEFAULT_EVALUATION_CACHE_KILOBYTES = 256;
+
+    /**
+     * The options used by the AI, with every technique turned on.
+     */
+    public static final SearchOptions DEFAULT = new SearchOptions(true, true, 1);
+
+    /**
+     * Options with every technique turned off, so that the search finds the exact minimax value of every Position.
+     */
+    public static final SearchOptions NONE = new SearchOptions(false, false, 1);
+
+    /**
+     * Whether or not moves that are ordered late are searched less deeply, unless they turn out to be good.
+     */
+    private final boolean isLateMoveReductionEnabled;
+
+    /**
+     * Whether or not a Position is skipped when several of its moves beat beta in a shallower search.
+     */
+    private final boolean isMultiCutEnabled;
+
+    /**
+     * The number of Threads that search at the same time, or ROOT_SPLIT. Every Thread after the first is a helper that
+     * only fills the TranspositionTable (Lazy SMP), so that the first Thread can find more of the tree already searched.
+     */
+    private final int threadCount;
+
+    /**
+     * The size of the EvaluationCache of every Thread in kilobytes, or 0 to evaluate every Position from scratch.
+     */
+    private final int evaluationCacheKilobytes;
+
+
+    /**
+     * Creates a new SearchOptions.
+     *
+     * @param isLateMoveReductionEnabled Whether or not moves that are ordered late are searched less deeply.
+     * @param isMultiCutEnabled Whether or not a Position is skipped when several of its moves beat beta in a shallower search.
+     */
+    public SearchOptions(boolean isLateMoveReductionEnabled, boolean isMultiCutEnabled) {
+        this(isLateMoveReductionEnabled, isMultiCutEnabled, 1);
+    }
+
+    /**
+     * Creates a new SearchOptions.
+     *
+     * @param isLateMoveReductionEnabled Whether or not moves that are ordered late are searched less deeply.
+     * @param isMultiCutEnabled Whether or not a Position is skipped when several of its moves beat beta in a shallower search.
+     * @param threadCount The number of Threads that search at the same time, or ROOT_SPLIT.
+     */
+    public SearchOptions(boolean isLateMoveReductionEnabled, boolean isMultiCutEnabled, int threadCount) {
+        this(isLateMoveReductionEnabled, isMultiCutEnabled, threadCount, DEFAULT_EVALUATION_CACHE_KILOBYTES);
+    }
+
+    /**
+     * Creates a new SearchOptions.
+     *
+     * @param isLateMoveReductionEnabled Whether or not moves that are ordered late are searched less deeply.
+     * @param isMultiCutEnabled Whether or not a Position is skipped when several of its moves beat beta in a shallower search.
+     * @param threadCount The number of Threads that search at the same time, or ROOT_SPLIT.
+     * @param evaluationCacheKilobytes The size of the EvaluationCache of every Thread in kilobytes, or 0 for none.
+     */
+    public SearchOptions(boolean isLateMoveReductionEnabled, boolean isMultiCutEnabled, int threadCount,
+                         int evaluationCacheKilobytes) {
+        if (threadCount < 1 && threadCount != ROOT_SPLIT)
+            throw new IllegalArgumentException("threadCount must be at least 1, or ROOT_SPLIT");
+        if (evaluationCacheKilobytes < 0) throw new IllegalArgumentException("evaluationCacheKilobytes must not be negative");
+        this.isLateMoveReductionEnabled = isLateMoveReductionEnabled;
+        this.isMultiCutEnabled = isMultiCutEnabled;
+        this.threadCount = threadCount;
+        this.evaluationCacheKilobytes = evaluationCacheKilobytes;
+    }
+
+    /**
+     * @param threadCount The number of Threads that search at the same time, or ROOT_SPLIT.
+     * @return A SearchOptions with the same selective search techniques as this one, and the given number of Threads.
+     */
+    public SearchOptions withThreadCount(int threadCount) {
+        return threadCount == this.threadCount ? this :
+                new SearchOptions(isLateMoveReductionEnabled, isMultiCutEnabled, threadCount, evaluationCacheKilobytes);
+    }
+
+    /**
+     * @param evaluationCacheKilobytes The size of the EvaluationCache of every Thread in kilobytes, or 0 for none.
+     * @return A SearchOptions that is the same as this one, except for the size of the EvaluationCache.
+     */
+    public SearchOptions withEvaluationCacheKilobytes(int evaluationCacheKilobytes) {
+        return evaluationCacheKilobytes == this.evaluationCacheKilobytes ? this :
+                new SearchOptions(isLateMoveReductionEnabled, isMultiCutEnabled, threadCount, evaluationCacheKilobytes);
+    }
+
+    /**
+     * @return Whether or not moves that are ordered late are searched less deeply, unless they turn out to be good.
+     */
+    public boolean isLateMoveReductionEnabled() {
+        return isLateMoveReductionEnabled;
+    }
+
+    /**
+     * @return Whether or not a Position is skipped when several of its moves beat beta in a shallower search.
+     */
+    public boolean isMultiCutEnabled() {
+        return isMultiCutEnabled;
+    }
+
+    /**
+     * @return The number of Threads that search at the same time, or ROOT_SPLIT.
+     */
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * @return The size of the EvaluationCache of every Thread in kilobytes, or 0 if every Position is evaluated from scratch.
+     */
+    public int getEvaluationCacheKilobytes() {
+        return evaluationCacheKilobytes;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchOptions[lateMoveReduction=" + isLateMoveReductionEnabled + ", multiCut=" + isMultiCutEnabled +
+                ", threads=" + (threadCount == ROOT_SPLIT ? "root split" : Integer.toString(threadCount)) +
+                ", evaluationCache=" + evaluationCacheKilobytes + "KB]";
+    }
+}
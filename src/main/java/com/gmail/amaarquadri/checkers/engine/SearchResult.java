@@ -0,0 +1,78 @@
+package com.gmail.amaarquadri.checkers.engine;
+
+/**
+ * This class holds the result of a search that was run by an EngineService.
+ * It is immutable, so it can be passed between Threads freely.
+ */
+public final class SearchResult {
+    /**
+     * The packed move that was picked, or PackedMove.NONE if no moves were possible.
+     */
+    private final long move;
+
+    /**
+     * The value of the move from red's perspective.
+     */
+    private final int value;
+
+    /**
+     * The reply that the opponent is expected to play, or PackedMove.NONE if there is no prediction.
+     */
+    private final long ponderMove;
+
+    /**
+     * What happened during the search.
+     */
+    private final SearchStatistics statistics;
+
+
+    /**
+     * Creates a new SearchResult.
+     *
+     * @param move The packed move that was picked, or PackedMove.NONE if no moves were possible.
+     * @param value The value of the move from red's perspective.
+     * @param ponderMove The reply that the opponent is expected to play, or PackedMove.NONE if there is no prediction.
+     * @param statistics What happened during the search. It must not be changed afterwards.
+     */
+    SearchResult(long move, int value, long ponderMove, SearchStatistics statistics) {
+        this.move = move;
+        this.value = value;
+        this.ponderMove = ponderMove;
+        this.statistics = statistics;
+    }
+
+    /**
+     * @return The packed move that was picked, or PackedMove.NONE if no moves were possible.
+     */
+    public long getMove() {
+        return move;
+    }
+
+    /**
+     * @return The value of the move from red's perspective.
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * @return The reply that the opponent is expected to play, or PackedMove.NONE if there is no prediction.
+     *         The AI can ponder on the Position after it.
+     */
+    public long getPonderMove() {
+        return ponderMove;
+    }
+
+    /**
+     * @return What happened during the search.
+     */
+    public SearchStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchResult[move=" + PackedMove.toString(move) + ", value=" + value +
+                ", ponderMove=" + PackedMove.toString(ponderMove) + ", " + statistics + "]";
+    }
+}
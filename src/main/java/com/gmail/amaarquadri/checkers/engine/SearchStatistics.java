@@ -0,0 +1,230 @@
+package com.gmail.amaarquadri.checkers.engine;
+
+/**
+ * This class counts what happened during a search, for logging and for tuning the AI.
+ * Each Searcher has its own SearchStatistics, which is reset at the start of every search.
+ */
+public final class SearchStatistics {
+    /**
+     * The number of Positions that were visited.
+     */
+    long nodes;
+
+    /**
+     * The number of Positions that were visited by the quiescence search, which are also counted in nodes.
+     */
+    long quiescenceNodes;
+
+    /**
+     * The depth of the last complete iteration of iterative deepening.
+     */
+    int depth;
+
+    /**
+     * The number of times the TranspositionTable was looked up.
+     */
+    long hashProbes;
+
+    /**
+     * The number of times the TranspositionTable held an entry for the Position that was looked up.
+     */
+    long hashHits;
+
+    /**
+     * The number of times an entry in the TranspositionTable was good enough to skip searching the Position.
+     */
+    long hashCutoffs;
+
+    /**
+     * The number of moves that were searched less deeply because they were ordered late.
+     */
+    long reductions;
+
+    /**
+     * The number of reduced moves that turned out to be good, and had to be searched again to the full depth.
+     */
+    long reductionReSearches;
+
+    /**
+     * The number of Positions that were skipped because several moves beat beta in a shallower search.
+     */
+    long multiCuts;
+
+    /**
+     * The number of Positions whose score was looked up in the Tablebase.
+     */
+    long tablebaseHits;
+
+    /**
+     * The number of times the EvaluationCache was looked up.
+     */
+    long evaluationCacheProbes;
+
+    /**
+     * The number of times the EvaluationCache held the static evaluation of the Position that was looked up.
+     */
+    long evaluationCacheHits;
+
+
+    /**
+     * Sets every count back to 0.
+     */
+    public void reset() {
+        nodes = 0;
+        quiescenceNodes = 0;
+        depth = 0;
+        hashProbes = 0;
+        hashHits = 0;
+        hashCutoffs = 0;
+        reductions = 0;
+        reductionReSearches = 0;
+        multiCuts = 0;
+        tablebaseHits = 0;
+        evaluationCacheProbes = 0;
+        evaluationCacheHits = 0;
+    }
+
+    /**
+     * Adds every count of the given SearchStatistics to this one, except for the depth.
+     * This combines the SearchStatistics of Searchers that worked on the same search.
+     *
+     * @param statistics The SearchStatistics to add.
+     */
+    void add(SearchStatistics statistics) {
+        nodes += statistics.nodes;
+        quiescenceNodes += statistics.quiescenceNodes;
+        hashProbes += statistics.hashProbes;
+        hashHits += statistics.hashHits;
+        hashCutoffs += statistics.hashCutoffs;
+        reductions += statistics.reductions;
+        reductionReSearches += statistics.reductionReSearches;
+        multiCuts += statistics.multiCuts;
+        tablebaseHits += statistics.tablebaseHits;
+        evaluationCacheProbes += statistics.evaluationCacheProbes;
+        evaluationCacheHits += statistics.evaluationCacheHits;
+    }
+
+    /**
+     * @return A new SearchStatistics with the same counts, which does not change when this one is reset.
+     */
+    SearchStatistics copy() {
+        SearchStatistics copy = new SearchStatistics();
+        copy.add(this);
+        copy.depth = depth;
+        return copy;
+    }
+
+    /**
+     * @return The number of Positions that were visited.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return The number of Positions that were visited by the quiescence search, which are also counted in getNodes().
+     */
+    public long getQuiescenceNodes() {
+        return quiescenceNodes;
+    }
+
+    /**
+     * @return The depth of the last complete iteration of iterative deepening.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return The number of times the TranspositionTable was looked up.
+     */
+    public long getHashProbes() {
+        return hashProbes;
+    }
+
+    /**
+     * @return The number of times the TranspositionTable held an entry for the Position that was looked up.
+     */
+    public long getHashHits() {
+        return hashHits;
+    }
+
+    /**
+     * @return The number of times an entry in the TranspositionTable was good enough to skip searching the Position.
+     */
+    public long getHashCutoffs() {
+        return hashCutoffs;
+    }
+
+    /**
+     * @return The number of moves that were searched less deeply because they were ordered late.
+     */
+    public long getReductions() {
+        return reductions;
+    }
+
+    /**
+     * @return The number of reduced moves that turned out to be good, and had to be searched again to the full depth.
+     */
+    public long getReductionReSearches() {
+        return reductionReSearches;
+    }
+
+    /**
+     * @return The number of Positions that were skipped because several moves beat beta in a shallower search.
+     */
+    public long getMultiCuts() {
+        return multiCuts;
+    }
+
+    /**
+     * @return The number of Positions whose score was looked up in the Tablebase.
+     */
+    public long getTablebaseHits() {
+        return tablebaseHits;
+    }
+
+    /**
+     * @return The number of times the EvaluationCache was looked up.
+     */
+    public long getEvaluationCacheProbes() {
+        return evaluationCacheProbes;
+    }
+
+    /**
+     * @return The number of times the EvaluationCache held the static evaluation of the Position that was looked up.
+     */
+    public long getEvaluationCacheHits() {
+        return evaluationCacheHits;
+    }
+
+    /**
+     * @return The effective branching factor of the last complete iteration, which is the number such that a tree
+     * with that many moves in every Position and the same depth would have the same number of nodes.
+     */
+    public double getEffectiveBranchingFactor() {
+        return depth == 0 ? 0 : Math.pow(nodes, 1.0 / depth);
+    }
+
+    /**
+     * @return The fraction of TranspositionTable lookups that found an entry, from 0 to 1.
+     */
+    public double getHashHitRate() {
+        return hashProbes == 0 ? 0 : (double) hashHits / hashProbes;
+    }
+
+    /**
+     * @return The fraction of EvaluationCache lookups that found the static evaluation, from 0 to 1.
+     */
+    public double getEvaluationCacheHitRate() {
+        return evaluationCacheProbes == 0 ? 0 : (double) evaluationCacheHits / evaluationCacheProbes;
+    }
+
+    @Override
+    public String toString() {
+        return "depth = " + depth + ", nodes = " + nodes + " (" + quiescenceNodes + " quiescence), hash hit rate = " + String.format("%.1f%%", 100 * getHashHitRate()) +
+                ", hash cutoffs = " + hashCutoffs + ", reductions = " + reductions + " (" + reductionReSearches +
+                " searched again), multi cuts = " + multiCuts + ", tablebase hits = " + tablebaseHits +
+                ", eval cache hit rate = " + String.format("%.1f%%", 100 * getEvaluationCacheHitRate());
+    }
+}
@@ -0,0 +1,980 @@
+package com.gmail.amaarquadri.checkers.engine;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class runs the AI's recursive tree search on a single Position that is changed in place and restored on return.
+ * The search is a negamax principal variation search: every layer returns its value from the perspective of the player
+ * whose turn it is, and every move after the first is tried with a null window before being searched fully.
+ * Moves are ordered so that the best move is likely to be searched first: the move from the TranspositionTable,
+ * then kills (the most pieces killed first), then the two killer moves of the layer, and then the rest by their history.
+ * At the last layer, kills keep being searched until the Position is quiet, so that a kill that is about to happen
+ * is never hidden just past the end of the search.
+ * The SearchOptions can make the search selective, by searching moves that are ordered late less deeply
+ * and by skipping Positions where several moves beat beta in a shallower search.
+ * All of the memory it needs is allocated up front, so no Objects are created while searching.
+ * Results are remembered in a TranspositionTable, which can be kept for a whole game and shared between Searchers.
+ * With more than one Thread in the SearchOptions, helper Searchers search the same Position on other Threads and share
+ * the TranspositionTable (Lazy SMP), which is the only way that they affect the result.
+ * A Searcher is not thread safe, so each worker Thread needs its own.
+ */
+public final class Searcher implements MovePicker {
+    /**
+     * The maximum depth that can be searched.
+     */
+    public static final int MAX_DEPTH = 64;
+
+    /**
+     * The number of nodes to search between checks of the time and the stop flag, since System.nanoTime() is not free.
+     */
+    private static final int NODES_BETWEEN_CHECKS = 1024;
+
+    /**
+     * A value greater than any possible score. Its negation can be used safely, unlike Integer.MIN_VALUE.
+     */
+    static final int INFINITY = Integer.MAX_VALUE;
+
+    /**
+     * The score of a Position where the player whose turn it is has won.
+     */
+    public static final int WIN = INFINITY - 1;
+
+    /**
+     * The score of a Position where the player whose turn it is has lost, because they cannot move.
+     */
+    public static final int LOSS = -WIN;
+
+    /**
+     * The score of a Position that the Tablebase says is won, before taking away the number of moves until the win.
+     * Quicker wins score higher, so the winning player always makes progress instead of wandering around the board.
+     */
+    static final int TABLEBASE_WIN = WIN - 1 - Tablebase.MAX_DISTANCE;
+
+    /**
+     * Scores at least this high (or at least this low when negated) are known to be wins (or losses), no matter how much
+     * deeper the search goes.
+     */
+    private static final int PROVEN_WIN = TABLEBASE_WIN - Tablebase.MAX_DISTANCE;
+
+    /**
+     * The ordering score of the move from the TranspositionTable, which is searched before everything else.
+     */
+    private static final int HASH_MOVE_SCORE = Integer.MAX_VALUE;
+
+    /**
+     * The ordering score of a kill, before adding the number of pieces it kills.
+     */
+    private static final int KILL_SCORE = 1 << 30;
+
+    /**
+     * The ordering score of the second killer move. The first killer move gets one more.
+     */
+    private static final int KILLER_SCORE = 1 << 29;
+
+    /**
+     * Once a history score reaches this, every history score is halved, so that they always stay below KILLER_SCORE.
+     */
+    private static final int HISTORY_LIMIT = 1 << 28;
+
+    /**
+     * The maximum number of layers of kills that the quiescence search can go through. Every kill removes at least one
+     * of the 24 pieces, and a player with no pieces left cannot kill, so this can never be reached.
+     */
+    private static final int MAX_QUIESCENCE_DEPTH = 24;
+
+    /**
+     * The minimum depth left for moves to be reduced. Any less and the reduced search would barely save anything.
+     */
+    private static final int REDUCTION_MIN_DEPTH = 3;
+
+    /**
+     * The number of moves that are always searched to the full depth before the rest can be reduced.
+     */
+    private static final int REDUCTION_MIN_MOVES = 3;
+
+    /**
+     * Moves from this index on are reduced by two layers instead of one, if there is enough depth left.
+     */
+    private static final int DOUBLE_REDUCTION_MIN_MOVES = 8;
+
+    /**
+     * The minimum depth left for moves to be reduced by two layers instead of one.
+     */
+    private static final int DOUBLE_REDUCTION_MIN_DEPTH = 6;
+
+    /**
+     * The minimum depth left for multi cut to be tried.
+     */
+    private static final int MULTI_CUT_MIN_DEPTH = 5;
+
+    /**
+     * The number of layers that the shallower searches of multi cut skip, on top of the layer of the move itself.
+     */
+    private static final int MULTI_CUT_REDUCTION = 3;
+
+    /**
+     * The number of moves that multi cut tries. Checkers rarely has more than a handful of good moves,
+     * so only the first few moves in the ordering are worth trying.
+     */
+    private static final int MULTI_CUT_MOVES = 6;
+
+    /**
+     * The number of moves that must beat beta in the shallower search for multi cut to skip the Position.
+     */
+    private static final int MULTI_CUT_CUTOFFS = 3;
+
+    /**
+     * The number of seconds that an idle helper Thread waits for another search before it ends.
+     */
+    private static final long HELPER_KEEP_ALIVE_SECONDS = 30;
+
+    /**
+     * Creates the helper Threads. They are daemon Threads, so that an idle Searcher never keeps the program running.
+     */
+    private static final ThreadFactory HELPER_THREAD_FACTORY = new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "Searcher helper");
+            thread.setDaemon(true);
+            return thread;
+        }
+    };
+
+    /**
+     * The Position being searched. Moves are made and unmade on it as the search goes up and down the tree.
+     */
+    private final Position position;
+
+    /**
+     * The MoveGenerator for the rules of the game being searched.
+     */
+    private final MoveGenerator moveGenerator;
+
+    /**
+     * A preallocated array of packed moves for every layer of the tree search, indexed by the depth left to search.
+     */
+    private final long[][] moveStack;
+
+    /**
+     * The ordering score of every move in moveStack, at the same indices.
+     */
+    private final int[][] moveScores;
+
+    /**
+     * A preallocated array of packed kills for every layer of the quiescence search, indexed by the number of kills made
+     * since the last layer of the main search.
+     */
+    private final long[][] quiescenceStack;
+
+    /**
+     * The ordering score of every kill in quiescenceStack, at the same indices.
+     */
+    private final int[][] quiescenceScores;
+
+    /**
+     * killers[ply] holds the two most recent moves that are not kills and caused a cutoff at the given distance from the root.
+     * A move that was good in one Position is often good in the other Positions at the same distance from the root.
+     */
+    private final long[][] killers;
+
+    /**
+     * history[from][to] grows every time a move from one square to another that is not a kill causes a cutoff,
+     * by more if it happened deeper in the tree. It is kept between searches, but halved at the start of each one.
+     */
+    private final int[][] history;
+
+    /**
+     * The table of previous search results.
+     */
+    private final TranspositionTable transpositionTable;
+
+    /**
+     * Which of the selective search techniques to use.
+     */
+    private final SearchOptions options;
+
+    /**
+     * The Searchers that search the same Position on other Threads, only to fill the TranspositionTable.
+     */
+    private final Searcher[] helpers;
+
+    /**
+     * Runs the helpers, or null if there are none.
+     */
+    private final ExecutorService helperExecutor;
+
+    /**
+     * The exact results of endgame Positions, or null if there are none.
+     */
+    private Tablebase tablebase;
+
+    /**
+     * The static evaluation of the Positions at the leaves of the tree.
+     */
+    private Evaluator evaluator;
+
+    /**
+     * The static evaluations of recently evaluated Positions, or null if every Position is evaluated from scratch.
+     */
+    private final EvaluationCache evaluationCache;
+
+    /**
+     * A reusable array that TranspositionTable entries are read into.
+     */
+    private final long[] hashEntry;
+
+    /**
+     * Counts what happened during the last search.
+     */
+    private final SearchStatistics statistics;
+
+    /**
+     * The System.nanoTime() at which the current search must stop, or Long.MAX_VALUE if there is no time limit.
+     * It is volatile because a search that is pondering is given its deadline from another Thread once the ponder move is
+     * played.
+     */
+    private volatile long deadline;
+
+    /**
+     * The number of nodes left before the time and the stop flag are checked again.
+     */
+    private int nodesUntilCheck;
+
+    /**
+     * Set by stop() (possibly from another Thread) to ask the current search to stop.
+     */
+    private volatile boolean isStopRequested;
+
+    /**
+     * Whether or not the current search has been stopped. Once this is set, every layer returns immediately
+     * without storing anything, since the results of an unfinished search are not valid.
+     */
+    private boolean isStopped;
+
+    /**
+     * The value of the move that was picked by the last call to pickMove().
+     */
+    private int rootValue;
+
+    /**
+     * The best move(s) of the last complete iteration (multiple moves will be present if they are all tied for best move).
+     */
+    private long[] bestMoves;
+
+    /**
+     * The number of moves in bestMoves.
+     */
+    private int bestMoveCount;
+
+
+    /**
+     * Creates a new Searcher with its own TranspositionTable of the default size.
+     *
+     * @param rules The rules of the game that will be searched.
+     */
+    public Searcher(GameRules rules) {
+        this(rules, new TranspositionTable(TranspositionTable.DEFAULT_MEGABYTES));
+    }
+
+    /**
+     * Creates a new Searcher.
+     *
+     * @param rules The rules of the game that will be searched.
+     * @param transpositionTable The table to remember results in. It must only ever be used for games with the same rules.
+     */
+    public Searcher(GameRules rules, TranspositionTable transpositionTable) {
+        this(rules, transpositionTable, SearchOptions.DEFAULT);
+    }
+
+    /**
+     * Creates a new Searcher.
+     *
+     * @param rules The rules of the game that will be searched.
+     * @param transpositionTable The table to remember results in. It must only ever be used for games with the same rules.
+     * @param options Which of the selective search techniques to use, and how many Threads to search with.
+     *                The thread count must not be SearchOptions.ROOT_SPLIT, which needs a ParallelSearcher.
+     */
+    public Searcher(GameRules rules, TranspositionTable transpositionTable, SearchOptions options) {
+        if (options.getThreadCount() == SearchOptions.ROOT_SPLIT)
+            throw new IllegalArgumentException("A Searcher cannot split the root, that is done by a ParallelSearcher");
+        position = new Position(0, 0, 0);
+        moveGenerator = MoveGenerator.forRules(rules);
+        moveStack = new long[MAX_DEPTH][MoveGenerator.MAX_MOVES];
+        moveScores = new int[MAX_DEPTH][MoveGenerator.MAX_MOVES];
+        quiescenceStack = new long[MAX_QUIESCENCE_DEPTH][MoveGenerator.MAX_MOVES];
+        quiescenceScores = new int[MAX_QUIESCENCE_DEPTH][MoveGenerator.MAX_MOVES];
+        killers = new long[MAX_DEPTH + 1][2];
+        history = new int[32][32];
+        this.transpositionTable = transpositionTable;
+        this.options = options;
+        helpers = new Searcher[options.getThreadCount() - 1];
+        for (int n = 0; n < helpers.length; n++) helpers[n] = new Searcher(rules, transpositionTable, options.withThreadCount(1));
+        if (helpers.length == 0) helperExecutor = null;
+        else {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(helpers.length, helpers.length, HELPER_KEEP_ALIVE_SECONDS,
+                    TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), HELPER_THREAD_FACTORY);
+            //the Threads end when the Searcher is idle, so a Searcher that is no longer used does not need to be shut down
+            executor.allowCoreThreadTimeOut(true);
+            helperExecutor = executor;
+        }
+        tablebase = null;
+        evaluator = MaterialEvaluator.INSTANCE;
+        evaluationCache = options.getEvaluationCacheKilobytes() == 0 ? null : new EvaluationCache(options.getEvaluationCacheKilobytes());
+        hashEntry = new long[2];
+        statistics = new SearchStatistics();
+    }
+
+    /**
+     * Sets the Tablebase that endgame Positions are looked up in. This must not be called while searching.
+     *
+     * @param tablebase The Tablebase, or null to stop using one. It must have been opened for the same rules as this Searcher.
+     */
+    @Override
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+        for (Searcher helper : helpers) helper.setTablebase(tablebase);
+    }
+
+    /**
+     * Sets the static evaluation of the Positions at the leaves of the tree. This must not be called while searching.
+     * The scores in the TranspositionTable were found with the old Evaluator, so it should be cleared as well.
+     *
+     * @param evaluator The Evaluator. The default is MaterialEvaluator.INSTANCE.
+     */
+    @Override
+    public void setEvaluator(Evaluator evaluator) {
+        this.evaluator = evaluator;
+        if (evaluationCache != null) evaluationCache.clear();
+        for (Searcher helper : helpers) helper.setEvaluator(evaluator);
+    }
+
+    /**
+     * Picks the best move for the player whose turn it is using iterative deepening.
+     * Every possible move is searched 0 layers deep, then 1 layer deep, and so on, until the maximum depth is reached or
+     * the time runs out. An iteration that is cut short by the time limit is thrown away, and the best move of the last
+     * complete iteration is used. The best move of each iteration is searched first in the next one.
+     * If several moves are tied for the best value, one of them is picked randomly.
+     * If the SearchOptions have more than one Thread, the helpers search the same Position at the same time until this
+     * Searcher is done, but only the result of this Searcher is used.
+     *
+     * @param root The Position to pick a move on. It is not modified.
+     * @param isRedTurn Whether or not it is red's turn on the given Position.
+     * @param limits The maximum depth and time budget of the search.
+     * @param random Used to choose between moves that are tied for the best value.
+     * @return The best packed move, or PackedMove.NONE if no moves are possible.
+     */
+    public long pickMove(Position root, boolean isRedTurn, SearchLimits limits, Random random) {
+        clearStop();
+        setDeadline(limits.getDeadline());
+        return pickMoveUnlessStopped(root, isRedTurn, limits.getMaxDepth(), random);
+    }
+
+    /**
+     * Same as pickMove(), except that the stop() and the deadline that were set before this was called are kept.
+     * This lets a search be cancelled safely before it has even started, and lets a ponder search be given its
+     * deadline at any time.
+     *
+     * @param root The Position to pick a move on. It is not modified.
+     * @param isRedTurn Whether or not it is red's turn on the given Position.
+     * @param maxDepth The depth of the last iteration.
+     * @param random Used to choose between moves that are tied for the best value.
+     * @return The best packed move, or PackedMove.NONE if no moves are possible.
+     */
+    @Override
+    public long pickMoveUnlessStopped(Position root, boolean isRedTurn, int maxDepth, Random random) {
+        transpositionTable.newSearch();
+        Future<?>[] helperResults = startHelpers(root, isRedTurn, maxDepth);
+        iterate(root, isRedTurn, 0, maxDepth, 0);
+        stopHelpers(helperResults);
+        return bestMoveCount == 0 ? PackedMove.NONE : bestMoves[random.nextInt(bestMoveCount)];
+    }
+
+    /**
+     * Predicts the reply to a move from the best move that the last search stored in the TranspositionTable for the
+     * Position after it, which is the second move of the principal variation.
+     *
+     * @param root The Position that the move is made on. It is not modified.
+     * @param isRedTurn Whether or not it is red's turn on the given Position.
+     * @param move The packed move that was picked on the given Position.
+     * @return The expected packed reply, or PackedMove.NONE if there is no prediction.
+     */
+    @Override
+    public long getPredictedReply(Position root, boolean isRedTurn, long move) {
+        if (move == PackedMove.NONE) return PackedMove.NONE;
+        Position position = new Position(root);
+        position.make(move);
+        long[] entry = new long[2];
+        if (!transpositionTable.probe(position.getKey(!isRedTurn), entry) || entry[1] == PackedMove.NONE)
+            return PackedMove.NONE;
+        //a different Position with the same key could have stored the move, so it must be checked
+        long[] replies = new long[MoveGenerator.MAX_MOVES];
+        int replyCount = moveGenerator.generateMoves(!isRedTurn, position, replies);
+        for (int i = 0; i < replyCount; i++) if (replies[i] == entry[1]) return entry[1];
+        return PackedMove.NONE;
+    }
+
+    /**
+     * Runs iterative deepening on the given Position, and leaves the best move(s) of the last complete iteration in
+     * bestMoves.
+     * The deadline must already have been set.
+     *
+     * @param root The Position to search. It is not modified.
+     * @param isRedTurn Whether or not it is red's turn on the given Position.
+     * @param minDepth The depth of the first iteration.
+     * @param maxDepth The depth of the last iteration.
+     * @param rotation The number of places to rotate the generated moves by before the first iteration, so that
+     *                 helpers start with a different move order.
+     */
+    private void iterate(Position root, boolean isRedTurn, int minDepth, int maxDepth, int rotation) {
+        position.set(root);
+        statistics.reset();
+        startSearch();
+
+        //the root moves are reordered between iterations, so they get their own array
+        long[] moves = new long[MoveGenerator.MAX_MOVES];
+        int moveCount = moveGenerator.generateMoves(isRedTurn, position, moves);
+        rootValue = isRedTurn ? LOSS : WIN;
+        bestMoveCount = 0;
+        if (moveCount == 0) return;
+        if (rotation % moveCount != 0) {
+            long[] rotated = new long[moveCount];
+            for (int i = 0; i < moveCount; i++) rotated[i] = moves[(i + rotation) % moveCount];
+            System.arraycopy(rotated, 0, moves, 0, moveCount);
+        }
+
+        //arrays to hold the best move(s) (multiple moves will be present if they are all tied for best move)
+        //for the last complete iteration, and for the current iteration
+        bestMoves = new long[moveCount];
+        long[] iterationBestMoves = new long[moveCount];
+
+        for (int depth = minDepth; depth <= maxDepth; depth++) {
+            int iterationBestMoveCount = 0;
+            //the score of the best move(s) checked so far, from the perspective of the player whose turn it is
+            int bestScore = -INFINITY;
+
+            for (int i = 0; i < moveCount; i++) {
+                int killedKings = position.make(moves[i]);
+                int score;
+                if (i == 0) score = -search(!isRedTurn, -INFINITY, INFINITY, depth, 1);
+                else {
+                    //a null window just below the best score cheaply tells whether this move is at least as good
+                    //only then is it searched again to find its exact score, which is needed to tell ties apart
+                    score = -search(!isRedTurn, -bestScore, -bestScore + 1, depth, 1);
+                    if (score >= bestScore && !isStopped) score = -search(!isRedTurn, -INFINITY, -bestScore + 1, depth, 1);
+                }
+                position.unmake(moves[i], killedKings);
+                if (isStopped) break;
+
+                //if this move is better than all the others, it replaces them all
+                if (score > bestScore) {
+                    bestScore = score;
+                    iterationBestMoves[0] = moves[i];
+                    iterationBestMoveCount = 1;
+                }
+                //if this move is just as good it gets added to the list
+                else if (score == bestScore) iterationBestMoves[iterationBestMoveCount++] = moves[i];
+            }
+            if (isStopped) {
+                //if the search was stopped before the first iteration finished, any move is better than none
+                if (bestMoveCount == 0) bestMoves[bestMoveCount++] = moves[0];
+                break;
+            }
+
+            System.arraycopy(iterationBestMoves, 0, bestMoves, 0, iterationBestMoveCount);
+            bestMoveCount = iterationBestMoveCount;
+            rootValue = isRedTurn ? bestScore : -bestScore;
+            statistics.depth = depth;
+
+            //there is nothing to decide if there is only one move, and a won or lost game cannot change with more depth
+            if (moveCount == 1 || isProven(bestScore)) break;
+            //the best move of this iteration is the most likely to be the best move of the next one
+            for (int i = 0; i < moveCount; i++) if (moves[i] == bestMoves[0]) {
+                moves[i] = moves[0];
+                moves[0] = bestMoves[0];
+                break;
+            }
+        }
+    }
+
+    /**
+     * Starts every helper searching the given Position. Helpers with an odd index start one layer deeper, and every
+     * helper starts with a different move order, so that they fill the TranspositionTable with different parts of the tree.
+     *
+     * @param root The Position to search. It is not modified.
+     * @param isRedTurn Whether or not it is red's turn on the given Position.
+     * @param maxDepth The depth of the last iteration.
+     * @return The Futures of the running helpers, to be passed to stopHelpers().
+     */
+    private Future<?>[] startHelpers(final Position root, final boolean isRedTurn, final int maxDepth) {
+        Future<?>[] helperResults = new Future<?>[helpers.length];
+        for (int n = 0; n < helpers.length; n++) {
+            final Searcher helper = helpers[n];
+            final int index = n + 1;
+            //this is done here rather than in the helper's Thread, so that stopHelpers() can never be missed
+            helper.isStopRequested = false;
+            //stopHelpers() stops the helpers once this Searcher is done, so they never need a deadline of their own
+            helper.deadline = Long.MAX_VALUE;
+            helperResults[n] = helperExecutor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    helper.iterate(root, isRedTurn, Math.min(index & 1, maxDepth), maxDepth, index);
+                }
+            });
+        }
+        return helperResults;
+    }
+
+    /**
+     * Stops every helper, waits for them to finish, and adds their SearchStatistics to this Searcher's.
+     *
+     * @param helperResults The Futures returned by startHelpers().
+     */
+    private void stopHelpers(Future<?>[] helperResults) {
+        for (Searcher helper : helpers) helper.stop();
+        boolean isInterrupted = false;
+        for (int n = 0; n < helpers.length; n++) {
+            while (true) {
+                try {
+                    helperResults[n].get();
+                    break;
+                } catch (InterruptedException e) {
+                    //the helper has already been told to stop, so it is still safe to wait for it
+                    isInterrupted = true;
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("A helper search failed", e.getCause());
+                }
+            }
+            statistics.add(helpers[n].statistics);
+        }
+        if (isInterrupted) Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Stops the current search as soon as possible. It is safe to call this from any Thread.
+     * pickMove() will still return the best move of the last complete iteration.
+     */
+    @Override
+    public void stop() {
+        isStopRequested = true;
+    }
+
+    /**
+     * Resets the move ordering and the stopped flag at the start of a search.
+     * The stop request and the deadline are set separately by whoever starts the search, since a helper starts on a
+     * different Thread, and a ParallelSearcher sets them before its Searchers start.
+     */
+    private void startSearch() {
+        for (long[] plyKillers : killers) Arrays.fill(plyKillers, PackedMove.NONE);
+        ageHistory();
+        isStopped = false;
+        nodesUntilCheck = NODES_BETWEEN_CHECKS;
+    }
+
+    /**
+     * Prepares this Searcher to search the moves of the given Position one at a time with searchRootMove(),
+     * for a ParallelSearcher that spreads the moves across several Searchers.
+     *
+     * The deadline must already have been set with setDeadline().
+     *
+     * @param root The Position whose moves will be searched. It is not modified.
+     */
+    void startRootSearch(Position root) {
+        position.set(root);
+        statistics.reset();
+        startSearch();
+    }
+
+    /**
+     * Changes when the current or next search must stop. It is safe to call this from any Thread.
+     * This only applies to searches started with pickMoveUnlessStopped() or startRootSearch(), since pickMove() sets
+     * its own deadline.
+     *
+     * @param deadline The System.nanoTime() at which the search must stop, or Long.MAX_VALUE if there is no time limit.
+     */
+    @Override
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Forgets any stop() that was requested before a search started with pickMoveUnlessStopped() or startRootSearch().
+     * This is separate so that the Thread that owns the search can decide when a stop() should no longer be ignored.
+     */
+    @Override
+    public void clearStop() {
+        isStopRequested = false;
+    }
+
+    /**
+     * Searches a single move of the Position given to startRootSearch().
+     *
+     * @param move The packed move to search.
+     * @param isRedTurn Whether or not it is red's turn on the Position given to startRootSearch().
+     * @param alpha The score that the player whose turn it is can already get with another move.
+     * @param beta The score above which the exact score of the move is not needed.
+     * @param depth The number of layers to search after the move.
+     * @return The score of the move from the perspective of the player whose turn it is, with the same fail-soft bounds
+     * as search(). This is meaningless if isStopped() returns true afterwards.
+     */
+    int searchRootMove(long move, boolean isRedTurn, int alpha, int beta, int depth) {
+        int killedKings = position.make(move);
+        int score = -search(!isRedTurn, -beta, -alpha, depth, 1);
+        position.unmake(move, killedKings);
+        return score;
+    }
+
+    /**
+     * @return Whether or not the current search was stopped by stop() or by running out of time.
+     */
+    boolean isStopped() {
+        return isStopped;
+    }
+
+    /**
+     * @return The value (from red's perspective) of the move that was picked by the last call to pickMove().
+     */
+    @Override
+    public int getRootValue() {
+        return rootValue;
+    }
+
+    /**
+     * @return What happened during the last search.
+     */
+    @Override
+    public SearchStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Calculates and returns the value of the given Position considering "depth" moves into the future.
+     * Results found in the TranspositionTable may have been searched deeper than "depth".
+     *
+     * @param root The Position to find the value of. It is not modified.
+     * @param isRedTurn Whether or not it is red's turn on the given Position.
+     * @param depth The number of layers left to search.
+     * @return The value of the given Position from red's perspective, considering "depth" Positions into the future.
+     */
+    public int getValue(Position root, boolean isRedTurn, int depth) {
+        if (depth >= MAX_DEPTH) throw new IllegalArgumentException("depth must be less than " + MAX_DEPTH);
+        position.set(root);
+        statistics.reset();
+        isStopRequested = false;
+        deadline = Long.MAX_VALUE;
+        startSearch();
+        int score = search(isRedTurn, -INFINITY, INFINITY, depth, 0);
+        return isRedTurn ? score : -score;
+    }
+
+    /**
+     * Calculates the score of the current Position considering "depth" moves into the future, using recursion.
+     * Scores are fail-soft: if the score is outside of the window, a bound that can be outside of the window is returned.
+     *
+     * @param isRedTurn Whether or not it is red's turn at the current point in the tree search.
+     * @param alpha The score that the player whose turn it is can already get elsewhere. Anything lower is not needed exactly.
+     * @param beta The score that the other player can already hold the player whose turn it is to.
+     *             Once a move reaches this, the rest of the moves can be skipped.
+     * @param depth The number of layers left to search. This also selects which move array to use.
+     * @param ply The number of layers between the root and the current Position.
+     * @return The score of the current Position from the perspective of the player whose turn it is.
+     * This is exact if it is between alpha and beta, at most the real score if it is at least beta,
+     * and at least the real score if it is at most alpha.
+     */
+    private int search(boolean isRedTurn, int alpha, int beta, int depth, int ply) {
+        //a Position in the Tablebase has an exact score, so there is nothing left to search
+        if (tablebase != null) {
+            int result = tablebase.probe(position, isRedTurn);
+            if (result != Tablebase.NOT_FOUND) {
+                statistics.tablebaseHits++;
+                return getTablebaseScore(result);
+            }
+        }
+
+        //special case for endpoints of the recursive tree search
+        if (depth == 0) return quiesce(isRedTurn, alpha, beta, 0);
+        statistics.nodes++;
+
+        //check the time and the stop flag every once in a while
+        if (--nodesUntilCheck <= 0) {
+            nodesUntilCheck = NODES_BETWEEN_CHECKS;
+            if (isStopRequested || System.nanoTime() > deadline) isStopped = true;
+        }
+        if (isStopped) return 0;
+
+        //check if this Position has already been searched deep enough
+        long key = position.getKey(isRedTurn);
+        long hashMove = PackedMove.NONE;
+        statistics.hashProbes++;
+        if (transpositionTable.probe(key, hashEntry)) {
+            statistics.hashHits++;
+            long data = hashEntry[0];
+            //even if the result is not deep enough to use, its best move is still likely to be the best move
+            hashMove = hashEntry[1];
+            if (TranspositionTable.getDepth(data) >= depth) {
+                int score = TranspositionTable.getScore(data), bound = TranspositionTable.getBound(data);
+                if (bound == TranspositionTable.EXACT || bound == TranspositionTable.LOWER_BOUND && score >= beta ||
+                        bound == TranspositionTable.UPPER_BOUND && score <= alpha) {
+                    statistics.hashCutoffs++;
+                    return score;
+                }
+            }
+        }
+
+        long[] moves = moveStack[depth];
+        int moveCount = moveGenerator.generateMoves(isRedTurn, position, moves);
+        //if no moves are possible the player whose turn it is has lost
+        if (moveCount == 0) return LOSS;
+        int[] scores = moveScores[depth];
+        scoreMoves(moves, scores, moveCount, hashMove, ply);
+
+        //if several of the first moves beat beta even in a shallower search, then one of them almost certainly does in a
+        //full search, so the Position is skipped. This is only done in null window searches, which never need exact scores
+        if (options.isMultiCutEnabled() && depth >= MULTI_CUT_MIN_DEPTH && beta - alpha == 1) {
+            int cutoffs = 0;
+            for (int i = 0; i < moveCount && i < MULTI_CUT_MOVES; i++) {
+                selectMove(moves, scores, i, moveCount);
+                int killedKings = position.make(moves[i]);
+                int score = -search(!isRedTurn, -beta, -alpha, depth - 1 - MULTI_CUT_REDUCTION, ply + 1);
+                position.unmake(moves[i], killedKings);
+                if (isStopped) return 0;
+                if (score >= beta && ++cutoffs == MULTI_CUT_CUTOFFS) {
+                    statistics.multiCuts++;
+                    return beta;
+                }
+            }
+        }
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        long bestMove = PackedMove.NONE;
+        for (int i = 0; i < moveCount; i++) {
+            selectMove(moves, scores, i, moveCount);
+            //the undo record is just the kings that were killed, everything else can be recovered from the move
+            int killedKings = position.make(moves[i]);
+            int score;
+            //the first move is expected to be the best, so it is searched with the full window
+            if (i == 0) score = -search(!isRedTurn, -beta, -alpha, depth - 1, ply + 1);
+            else {
+                //the other moves only need to be proven worse than alpha, which a null window does cheaply
+                //moves that are ordered late are very unlikely to be better, so they are first searched less deeply
+                int reduction = getReduction(moves[i], scores[i], i, depth);
+                score = -search(!isRedTurn, -alpha - 1, -alpha, depth - 1 - reduction, ply + 1);
+                //if a reduced move turned out to be better, then that must be confirmed at the full depth
+                if (reduction > 0 && score > alpha && !isStopped) {
+                    statistics.reductionReSearches++;
+                    score = -search(!isRedTurn, -alpha - 1, -alpha, depth - 1, ply + 1);
+                }
+                //if the move turned out to be better, then it is searched again to find its exact score
+                if (score > alpha && score < beta && !isStopped) score = -search(!isRedTurn, -beta, -alpha, depth - 1, ply + 1);
+            }
+            position.unmake(moves[i], killedKings);
+            if (isStopped) return 0;
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = moves[i];
+                if (score > alpha) {
+                    alpha = score;
+                    //the other player will never allow this Position, so the rest of the moves can be skipped
+                    if (alpha >= beta) {
+                        if (!PackedMove.isKill(moves[i])) recordCutoff(moves[i], depth, ply);
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND
+                : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        transpositionTable.store(key, depth, bound, bestScore, bestMove);
+        return bestScore;
+    }
+
+    /**
+     * @param result A value returned by Tablebase.probe() that is not Tablebase.NOT_FOUND.
+     * @return The score of the result from the perspective of the player whose turn it is.
+     */
+    private static int getTablebaseScore(int result) {
+        if (result == Tablebase.DRAW) return 0;
+        int score = TABLEBASE_WIN - Tablebase.getDistance(result);
+        return Tablebase.isWin(result) ? score : -score;
+    }
+
+    /**
+     * @param score A score from the perspective of either player.
+     * @return Whether or not the score is a win or a loss that can never change with more depth.
+     */
+    static boolean isProven(int score) {
+        return score >= PROVEN_WIN || score <= -PROVEN_WIN;
+    }
+
+    /**
+     * @return The static evaluation of the current Position from red's perspective, from the EvaluationCache if possible.
+     */
+    private int evaluate() {
+        if (evaluationCache == null) return evaluator.evaluate(position);
+        //the evaluation does not depend on whose turn it is, so the same key is used for both players
+        long key = position.getKey(true);
+        statistics.evaluationCacheProbes++;
+        long cached = evaluationCache.probe(key);
+        if (cached != EvaluationCache.NOT_FOUND) {
+            statistics.evaluationCacheHits++;
+            return (int) cached;
+        }
+        int value = evaluator.evaluate(position);
+        evaluationCache.store(key, value);
+        return value;
+    }
+
+    /**
+     * Calculates the score of the current Position by only searching kills until no more kills are possible.
+     * The player whose turn it is never has to kill, so they can always "stand pat" and take the static evaluation instead.
+     * Kills that could not reach alpha even if they won a white piece for every piece killed are skipped (delta pruning).
+     *
+     * @param isRedTurn Whether or not it is red's turn at the current point in the tree search.
+     * @param alpha The score that the player whose turn it is can already get elsewhere.
+     * @param beta The score that the other player can already hold the player whose turn it is to.
+     * @param quiescenceDepth The number of kills made since the last layer of the main search.
+     *                        This selects which move array to use.
+     * @return The score of the current Position from the perspective of the player whose turn it is, with the same
+     * fail-soft bounds as search().
+     */
+    private int quiesce(boolean isRedTurn, int alpha, int beta, int quiescenceDepth) {
+        statistics.nodes++;
+        statistics.quiescenceNodes++;
+        if (--nodesUntilCheck <= 0) {
+            nodesUntilCheck = NODES_BETWEEN_CHECKS;
+            if (isStopRequested || System.nanoTime() > deadline) isStopped = true;
+        }
+        if (isStopped) return 0;
+
+        int standPat = isRedTurn ? evaluate() : -evaluate();
+        if (standPat >= beta) return standPat;
+        if (standPat > alpha) alpha = standPat;
+
+        long[] moves = quiescenceStack[quiescenceDepth];
+        int moveCount = moveGenerator.generateKills(isRedTurn, position, moves);
+        int[] scores = quiescenceScores[quiescenceDepth];
+        for (int i = 0; i < moveCount; i++) scores[i] = Integer.bitCount(PackedMove.getKilled(moves[i]));
+
+        int bestScore = standPat;
+        for (int i = 0; i < moveCount; i++) {
+            selectMove(moves, scores, i, moveCount);
+            //the kills are sorted by the number of pieces killed, so if this one cannot reach alpha then none of the rest can
+            int maxScore = standPat + scores[i] * evaluator.getMaxKillGain() + evaluator.getMaxMoveGain();
+            if (maxScore <= alpha) {
+                //the skipped kills could still be better than the stand pat, so the returned bound must allow for them
+                if (maxScore > bestScore) bestScore = maxScore;
+                break;
+            }
+
+            int killedKings = position.make(moves[i]);
+            int score = -quiesce(!isRedTurn, -beta, -alpha, quiescenceDepth + 1);
+            position.unmake(moves[i], killedKings);
+            if (isStopped) return 0;
+
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) break;
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    /**
+     * Gives every move an ordering score. Moves with higher scores are searched first.
+     *
+     * @param moves The moves to score.
+     * @param scores The array to write the scores into, at the same indices as the moves.
+     * @param moveCount The number of moves.
+     * @param hashMove The best move from the TranspositionTable, or PackedMove.NONE if there is none.
+     * @param ply The number of layers between the root and the current Position.
+     */
+    private void scoreMoves(long[] moves, int[] scores, int moveCount, long hashMove, int ply) {
+        long firstKiller = killers[ply][0], secondKiller = killers[ply][1];
+        for (int i = 0; i < moveCount; i++) {
+            long move = moves[i];
+            if (move == hashMove) scores[i] = HASH_MOVE_SCORE;
+            //longer multi kills first
+            else if (PackedMove.isKill(move)) scores[i] = KILL_SCORE + Integer.bitCount(PackedMove.getKilled(move));
+            else if (move == firstKiller) scores[i] = KILLER_SCORE + 1;
+            else if (move == secondKiller) scores[i] = KILLER_SCORE;
+            else scores[i] = history[PackedMove.getFrom(move)][PackedMove.getTo(move)];
+        }
+    }
+
+    /**
+     * Calculates how many fewer layers to search a move with, because it was ordered late.
+     * Kills, kinging moves, killer moves and the move from the TranspositionTable are never reduced,
+     * since they are the moves most likely to change the value of the Position.
+     *
+     * @param move The packed move.
+     * @param score The ordering score of the move.
+     * @param index The index of the move in the search order.
+     * @param depth The number of layers left to search.
+     * @return The number of layers to reduce the search of the move by.
+     */
+    private int getReduction(long move, int score, int index, int depth) {
+        if (!options.isLateMoveReductionEnabled() || depth < REDUCTION_MIN_DEPTH || index < REDUCTION_MIN_MOVES ||
+                score >= KILLER_SCORE || PackedMove.isKinged(move)) return 0;
+        statistics.reductions++;
+        return index >= DOUBLE_REDUCTION_MIN_MOVES && depth >= DOUBLE_REDUCTION_MIN_DEPTH ? 2 : 1;
+    }
+
+    /**
+     * Moves the move with the highest ordering score out of the moves that have not been searched yet to the given index.
+     * This is a single step of selection sort, which is cheaper than sorting everything since most nodes cut off early.
+     *
+     * @param moves The moves.
+     * @param scores The ordering scores of the moves.
+     * @param index The index of the next move to search. Every move before it has already been searched.
+     * @param moveCount The number of moves.
+     */
+    private static void selectMove(long[] moves, int[] scores, int index, int moveCount) {
+        int best = index;
+        for (int i = index + 1; i < moveCount; i++) if (scores[i] > scores[best]) best = i;
+        if (best == index) return;
+        long move = moves[index];
+        moves[index] = moves[best];
+        moves[best] = move;
+        int score = scores[index];
+        scores[index] = scores[best];
+        scores[best] = score;
+    }
+
+    /**
+     * Remembers a move that is not a kill and caused a cutoff, so that it is tried earlier in other Positions.
+     *
+     * @param move The packed move.
+     * @param depth The number of layers that were left to search.
+     * @param ply The number of layers between the root and the current Position.
+     */
+    private void recordCutoff(long move, int depth, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        //cutoffs close to the root save much more work, so they count for more
+        int[] fromHistory = history[PackedMove.getFrom(move)];
+        fromHistory[PackedMove.getTo(move)] += depth * depth;
+        if (fromHistory[PackedMove.getTo(move)] >= HISTORY_LIMIT) ageHistory();
+    }
+
+    /**
+     * Halves every history score, so that recent cutoffs count for more than old ones.
+     */
+    private void ageHistory() {
+        for (int[] fromHistory : history) for (int to = 0; to < 32; to++) fromHistory[to] >>= 1;
+    }
+}
@@ -0,0 +1,369 @@
+package com.gmail.amaarquadri.checkers.engine;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * This class looks up the exact result of endgame Positions in tables that were worked out ahead of time by
+ * TablebaseGenerator. There is one file for every Material, which holds one byte for every Position with red to move:
+ * 0 for a draw, or the number of moves until the game is over plus one. The player to move wins if the number of moves
+ * is odd, since they are the one who makes the last move.
+ * Positions with white to move are flipped (rotated half a turn with the colours swapped) before they are looked up,
+ * since the rules treat both players the same way.
+ * <p>
+ * The bytes are split into blocks that are compressed on their own, so a file can be read without decompressing all of it.
+ * The files are memory mapped, so only the blocks that are used are ever read from storage,
+ * and the most recently used blocks are kept decompressed in a small cache that is shared by every searching Thread.
+ * Blocks that are in the cache are looked up without locking, so only a Thread that has to decompress a block waits for
+ * the others.
+ */
+public final class Tablebase {
+    //STATIC MEMBERS
+
+
+    /**
+     * Returned by probe() if the Position is not in the Tablebase.
+     */
+    public static final int NOT_FOUND = -1;
+
+    /**
+     * Returned by probe() if the Position is a draw.
+     */
+    public static final int DRAW = 0;
+
+    /**
+     * The largest number of moves until the game is over that a file can hold.
+     */
+    public static final int MAX_DISTANCE = 254;
+
+    /**
+     * The default number of decompressed blocks to keep.
+     */
+    public static final int DEFAULT_CACHE_BLOCKS = 64;
+
+    /**
+     * The first 4 bytes of every file.
+     */
+    private static final int MAGIC = 0x43544231;
+
+    /**
+     * The number of Positions in every block except for the last one of each file.
+     */
+    private static final int BLOCK_SIZE = 4096;
+
+    /**
+     * The number of bytes before the block offsets: the magic number, the rules, the Material,
+     * the number of Positions and the number of blocks.
+     */
+    private static final int HEADER_SIZE = 20;
+
+    /**
+     * @param rules The rules of the game.
+     * @param material The Material of the table.
+     * @return The name of the file that holds the table.
+     */
+    public static String getFileName(GameRules rules, Material material) {
+        return "rules" + rules.getIndex() + "_" + material.getRedPieces() + material.getRedKings() + material.getWhitePieces() +
+                material.getWhiteKings() + ".tb";
+    }
+
+    /**
+     * @param result A value returned by probe() that is not NOT_FOUND or DRAW.
+     * @return Whether or not the player to move wins.
+     */
+    public static boolean isWin(int result) {
+        return (result & 1) == 0;
+    }
+
+    /**
+     * @param result A value returned by probe() that is not NOT_FOUND or DRAW.
+     * @return The number of moves until the player to move wins or loses, with both players playing perfectly.
+     */
+    public static int getDistance(int result) {
+        return result - 1;
+    }
+
+    /**
+     * Opens every table in a directory that was generated for the given rules.
+     *
+     * @param directory The directory that holds the files. If it does not exist, the Tablebase is empty.
+     * @param rules The rules of the game that will be searched.
+     * @param cacheBlocks The number of decompressed blocks to keep.
+     * @return The Tablebase.
+     * @throws IOException If a file cannot be read, or it is not a table.
+     */
+    public static Tablebase open(File directory, GameRules rules, int cacheBlocks) throws IOException {
+        Tablebase tablebase = new Tablebase(cacheBlocks);
+        File[] files = directory.listFiles();
+        if (files == null) return tablebase;
+        for (File file : files) if (file.getName().startsWith("rules" + rules.getIndex() + "_") && file.getName().endsWith(".tb")) {
+            Table table = new Table(file, rules);
+            tablebase.tables[table.material.getKey()] = table;
+            tablebase.maxPieces = Math.max(tablebase.maxPieces, table.material.getPieceCount());
+        }
+        return tablebase;
+    }
+
+    /**
+     * Writes a table to a file.
+     *
+     * @param file The file to write. It should be named with getFileName() so that open() can find it.
+     * @param rules The rules of the game that the table was generated for.
+     * @param material The Material of the table.
+     * @param results The result of every Position with red to move, in the same format as probe(), indexed by Material.getIndex().
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(File file, GameRules rules, Material material, byte[] results) throws IOException {
+        if (results.length != material.getSize()) throw new IllegalArgumentException("Wrong number of results for " + material);
+        int blockCount = (results.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        long[] offsets = new long[blockCount + 1];
+        offsets[0] = HEADER_SIZE + 8 * offsets.length;
+        ByteArrayOutputStream blocks = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        byte[] buffer = new byte[2 * BLOCK_SIZE];
+        for (int block = 0; block < blockCount; block++) {
+            deflater.reset();
+            deflater.setInput(results, block * BLOCK_SIZE, Math.min(BLOCK_SIZE, results.length - block * BLOCK_SIZE));
+            deflater.finish();
+            while (!deflater.finished()) blocks.write(buffer, 0, deflater.deflate(buffer));
+            offsets[block + 1] = offsets[0] + blocks.size();
+        }
+        deflater.end();
+
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try {
+            output.writeInt(MAGIC);
+            output.writeInt(rules.getIndex());
+            output.writeInt(material.getKey());
+            output.writeInt(results.length);
+            output.writeInt(blockCount);
+            for (long offset : offsets) output.writeLong(offset);
+            blocks.writeTo(output);
+        } finally {
+            output.close();
+        }
+    }
+
+
+    //INSTANCE VARIABLES
+
+
+    /**
+     * The tables that were opened, indexed by Material.getKey(), or null for tables that do not exist.
+     */
+    private final Table[] tables;
+
+    /**
+     * The largest number of pieces of any table.
+     */
+    private int maxPieces;
+
+    /**
+     * The table of the block in each slot of the cache, or null for slots that are still empty.
+     * It is also the lock for changing which blocks are in the cache.
+     */
+    private final Table[] slotTables;
+
+    /**
+     * The number of the block in each slot of the cache.
+     */
+    private final int[] slotBlocks;
+
+    /**
+     * The next slot of the cache that may be reused. It goes around the slots like the hand of a clock.
+     */
+    private int hand;
+
+    /**
+     * Decompresses the blocks. Each Thread has its own, so that they can decompress blocks at the same time.
+     */
+    private final ThreadLocal<Inflater> inflaters;
+
+
+    /**
+     * Creates a new empty Tablebase. Use open() instead.
+     *
+     * @param cacheBlocks The number of decompressed blocks to keep.
+     */
+    private Tablebase(int cacheBlocks) {
+        if (cacheBlocks < 1) throw new IllegalArgumentException("cacheBlocks must be at least 1");
+        tables = new Table[Material.KEY_COUNT];
+        maxPieces = 0;
+        slotTables = new Table[cacheBlocks];
+        slotBlocks = new int[cacheBlocks];
+        hand = 0;
+        inflaters = new ThreadLocal<Inflater>() {
+            @Override
+            protected Inflater initialValue() {
+                return new Inflater();
+            }
+        };
+    }
+
+    /**
+     * @return The largest number of pieces of any table, or 0 if there are none.
+     */
+    public int getMaxPieces() {
+        return maxPieces;
+    }
+
+    /**
+     * Looks up the result of a Position. It is safe to call this from several Threads at once.
+     *
+     * @param position The Position to look up.
+     * @param isRedTurn Whether or not it is red's turn on the given Position.
+     * @return NOT_FOUND if there is no table for the Position, DRAW if it is a draw,
+     *         or the number of moves until the game is over plus one (see isWin() and getDistance()).
+     */
+    public int probe(Position position, boolean isRedTurn) {
+        int red = position.red, white = position.white, kings = position.kings;
+        //most Positions have too many pieces, so that is checked before anything else
+        if (Integer.bitCount(red | white) > maxPieces) return NOT_FOUND;
+        if (!isRedTurn) {
+            int flipped = Integer.reverse(white);
+            white = Integer.reverse(red);
+            red = flipped;
+            kings = Integer.reverse(kings);
+        }
+        //a player without any pieces left cannot move, so they have already lost
+        if (red == 0) return 1;
+        Table table = tables[Material.getKey(red, white, kings)];
+        if (table == null) return NOT_FOUND;
+        int index = table.material.getIndex(red, white, kings);
+        return getBlock(table, index / BLOCK_SIZE)[index % BLOCK_SIZE] & 0xFF;
+    }
+
+    /**
+     * @param table The table that holds the block.
+     * @param block The number of the block.
+     * @return The decompressed block, from the cache if possible.
+     */
+    private byte[] getBlock(Table table, int block) {
+        byte[] results = table.blocks.get(block);
+        if (results != null) {
+            //checking first means that a block which is used all the time is not written to by every Thread
+            if (!table.used[block]) table.used[block] = true;
+            return results;
+        }
+        results = inflate(table, block);
+        synchronized (slotTables) {
+            //another Thread may have decompressed the same block in the meantime
+            byte[] cached = table.blocks.get(block);
+            if (cached != null) return cached;
+            //blocks that were used since the hand last passed them get another turn, which approximates least recently used
+            while (slotTables[hand] != null && slotTables[hand].used[slotBlocks[hand]]) {
+                slotTables[hand].used[slotBlocks[hand]] = false;
+                hand = (hand + 1) % slotTables.length;
+            }
+            if (slotTables[hand] != null) slotTables[hand].blocks.set(slotBlocks[hand], null);
+            slotTables[hand] = table;
+            slotBlocks[hand] = block;
+            hand = (hand + 1) % slotTables.length;
+            table.used[block] = false;
+            table.blocks.set(block, results);
+            return results;
+        }
+    }
+
+    /**
+     * @param table The table that holds the block.
+     * @param block The number of the block.
+     * @return The block, decompressed with the calling Thread's Inflater.
+     */
+    private byte[] inflate(Table table, int block) {
+        byte[] results = new byte[Math.min(BLOCK_SIZE, table.material.getSize() - block * BLOCK_SIZE)];
+        ByteBuffer buffer = table.buffer.duplicate();
+        int start = (int) buffer.getLong(HEADER_SIZE + 8 * block), end = (int) buffer.getLong(HEADER_SIZE + 8 * (block + 1));
+        byte[] compressed = new byte[end - start];
+        buffer.position(start);
+        buffer.get(compressed);
+        Inflater inflater = inflaters.get();
+        inflater.reset();
+        inflater.setInput(compressed);
+        try {
+            if (inflater.inflate(results) != results.length) throw new IllegalStateException("Truncated block in " + table);
+        } catch (DataFormatException e) {
+            //the header was already checked when the file was opened, so the file was changed or damaged since
+            throw new IllegalStateException("Corrupt block in " + table, e);
+        }
+        return results;
+    }
+
+
+    /**
+     * A single memory mapped file.
+     */
+    private static final class Table {
+        /**
+         * The Material of every Position in the file.
+         */
+        private final Material material;
+
+        /**
+         * The contents of the file.
+         */
+        private final MappedByteBuffer buffer;
+
+        /**
+         * The file.
+         */
+        private final File file;
+
+        /**
+         * The decompressed blocks that are in the cache, indexed by block number, or null for the ones that are not.
+         */
+        private final AtomicReferenceArray<byte[]> blocks;
+
+        /**
+         * Whether or not each block was used since the hand of the cache last passed it. It is only a hint for which
+         * block to remove from the cache next, so it is read and written without locking.
+         */
+        private final boolean[] used;
+
+
+        /**
+         * Maps a file and checks its header.
+         *
+         * @param file The file to map.
+         * @param rules The rules that the file must have been generated for.
+         * @throws IOException If the file cannot be read, or it is not a table.
+         */
+        private Table(File file, GameRules rules) throws IOException {
+            this.file = file;
+            RandomAccessFile input = new RandomAccessFile(file, "r");
+            try {
+                //the mapping stays valid after the file is closed
+                buffer = input.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, input.length());
+            } finally {
+                input.close();
+            }
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) throw new IOException("Not a table: " + file);
+            if (buffer.getInt(4) != rules.getIndex()) throw new IOException("Table for different rules: " + file);
+            int key = buffer.getInt(8);
+            material = new Material(key & 0xF, key >>> 4 & 0xF, key >>> 8 & 0xF, key >>> 12 & 0xF);
+            int blockCount = buffer.getInt(16);
+            if (buffer.getInt(12) != material.getSize() || blockCount != (material.getSize() + BLOCK_SIZE - 1) / BLOCK_SIZE ||
+                    buffer.getLong(HEADER_SIZE + 8 * blockCount) != buffer.capacity())
+                throw new IOException("Damaged table: " + file);
+            blocks = new AtomicReferenceArray<byte[]>(blockCount);
+            used = new boolean[blockCount];
+        }
+
+        @Override
+        public String toString() {
+            return file.getName();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.gmail.amaarquadri.checkers.engine;
+
+import java.util.Arrays;
+
+/**
+ * This class remembers the results of searches so that a Position reached again through a different order of moves
+ * (or again on a later turn of the same game) does not need to be searched again.
+ * It has a fixed size and is stored in a single long[], so it never creates Objects while searching.
+ * <p>
+ * Every entry is three longs: a check value, the data (score, depth, bound type, and generation) and the best move.
+ * The check value is the key xor the data xor the move, so an entry that was half written by another Thread
+ * fails the check and is ignored. This allows several searching Threads to share a table without locking.
+ * Entries are grouped in buckets of two: the first keeps the deepest result and the second is always replaced.
+ */
+public final class TranspositionTable {
+    /**
+     * The default size of a table, in megabytes.
+     */
+    public static final int DEFAULT_MEGABYTES = 8;
+
+    /**
+     * Constant indicating that a stored score is the exact value of the Position.
+     */
+    public static final int EXACT = 0;
+
+    /**
+     * Constant indicating that the value of the Position is at least the stored score.
+     */
+    public static final int LOWER_BOUND = 1;
+
+    /**
+     * Constant indicating that the value of the Position is at most the stored score.
+     */
+    public static final int UPPER_BOUND = 2;
+
+    /**
+     * The number of longs in each entry.
+     */
+    private static final int ENTRY_SIZE = 3;
+
+    /**
+     * The number of longs in each bucket.
+     */
+    private static final int BUCKET_SIZE = 2 * ENTRY_SIZE;
+
+    /**
+     * The entries, stored one after the other as (check, data, move).
+     */
+    private final long[] table;
+
+    /**
+     * The number of buckets minus one. The number of buckets is a power of 2, so this masks a key down to a bucket.
+     */
+    private final int bucketMask;
+
+    /**
+     * A number that changes with every new search, so that results from old searches can be replaced first.
+     */
+    private volatile int generation;
+
+
+    /**
+     * Creates a new empty TranspositionTable.
+     *
+     * @param megabytes The maximum amount of memory to use. The actual size is rounded down to a power of 2 buckets.
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) throw new IllegalArgumentException("megabytes must be at least 1");
+        long buckets = Long.highestOneBit(((long) megabytes << 20) / (BUCKET_SIZE * 8));
+        //an array cannot have more than Integer.MAX_VALUE elements
+        buckets = Math.min(buckets, 1 << 28);
+        table = new long[(int) buckets * BUCKET_SIZE];
+        bucketMask = (int) buckets - 1;
+    }
+
+    /**
+     * Must be called before every new search from the root, so that entries from older searches are replaced first.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        Arrays.fill(table, 0);
+    }
+
+    /**
+     * Looks up the given key.
+     *
+     * @param key The key of the Position, with the player to move.
+     * @param entry An array of length 2 that the data and the best move will be written into if the key is found.
+     * @return Whether or not the key was found.
+     */
+    public boolean probe(long key, long[] entry) {
+        int index = ((int) key & bucketMask) * BUCKET_SIZE;
+        for (int n = 0; n < 2; n++, index += ENTRY_SIZE) {
+            long check = table[index], data = table[index + 1], move = table[index + 2];
+            if ((check ^ data ^ move) == key) {
+                entry[0] = data;
+                entry[1] = move;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stores the result of a search.
+     *
+     * @param key The key of the Position, with the player to move.
+     * @param depth The number of layers that were searched.
+     * @param bound The type of the score: EXACT, LOWER_BOUND or UPPER_BOUND.
+     * @param score The result of the search.
+     * @param move The best packed move that was found, or PackedMove.NONE if there is none.
+     */
+    public void store(long key, int depth, int bound, int score, long move) {
+        int index = ((int) key & bucketMask) * BUCKET_SIZE;
+        int generation = this.generation;
+        long data = (score & 0xFFFFFFFFL) | (long) depth << 32 | (long) bound << 40 | (long) generation << 48;
+
+        //the first entry of the bucket is only replaced by a result that is just as deep, or if it is out of date
+        long check = table[index], oldData = table[index + 1], oldMove = table[index + 2];
+        boolean isSameKey = (check ^ oldData ^ oldMove) == key;
+        if (!isSameKey && getDepth(oldData) > depth && getGeneration(oldData) == generation) index += ENTRY_SIZE;
+
+        table[index] = key ^ data ^ move;
+        table[index + 1] = data;
+        table[index + 2] = move;
+    }
+
+    /**
+     * @return The number of entries that the table can hold.
+     */
+    public int getCapacity() {
+        return table.length / ENTRY_SIZE;
+    }
+
+
+    /**
+     * @param data The data of an entry.
+     * @return The stored score.
+     */
+    public static int getScore(long data) {
+        return (int) data;
+    }
+
+    /**
+     * @param data The data of an entry.
+     * @return The number of layers that were searched.
+     */
+    public static int getDepth(long data) {
+        return (int) (data >>> 32) & 0xFF;
+    }
+
+    /**
+     * @param data The data of an entry.
+     * @return The type of the stored score: EXACT, LOWER_BOUND or UPPER_BOUND.
+     */
+    public static int getBound(long data) {
+        return (int) (data >>> 40) & 3;
+    }
+
+    /**
+     * @param data The data of an entry.
+     * @return The generation of the search that stored the entry.
+     */
+    private static int getGeneration(long data) {
+        return (int) (data >>> 48) & 0xFF;
+    }
+}
@@ -0,0 +1,95 @@
+package com.gmail.amaarquadri.checkers.engine;
+
+/**
+ * This class holds the random numbers used to give every Position a 64-bit key.
+ * The key of a Position is the xor of one number for every piece (based on its colour, whether it is a king, and its square),
+ * and the number for red's turn if it is red's turn. Making a move only changes a few of these, so keys are updated
+ * incrementally instead of being recalculated.
+ * The numbers come from a fixed seed, so keys are the same on every device and in every run.
+ */
+public final class Zobrist {
+    /**
+     * Prevents Zobrist initialization.
+     */
+    private Zobrist() {
+        throw new AssertionError();
+    }
+
+
+    /**
+     * Constant indicating a red piece that is not a king.
+     */
+    static final int RED_PIECE = 0;
+
+    /**
+     * Constant indicating a red king.
+     */
+    static final int RED_KING = 1;
+
+    /**
+     * Constant indicating a white piece that is not a king.
+     */
+    static final int WHITE_PIECE = 2;
+
+    /**
+     * Constant indicating a white king.
+     */
+    static final int WHITE_KING = 3;
+
+    /**
+     * PIECES[type][square] is the number for a piece of the given type on the given square.
+     */
+    static final long[][] PIECES = new long[4][32];
+
+    /**
+     * The number that is included in the key when it is red's turn.
+     */
+    static final long RED_TURN;
+
+    static {
+        //splitmix64, which gives well mixed numbers from a simple counter
+        long state = 0x436865636B657273L;
+        for (int type = 0; type < 4; type++) for (int square = 0; square < 32; square++) {
+            state += 0x9E3779B97F4A7C15L;
+            PIECES[type][square] = mix(state);
+        }
+        state += 0x9E3779B97F4A7C15L;
+        RED_TURN = mix(state);
+    }
+
+    /**
+     * @param z The value to mix.
+     * @return The output of splitmix64 for the given state.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Calculates the part of a key that depends on the pieces from scratch.
+     *
+     * @param red A mask of all the squares that contain a red piece or a red king.
+     * @param white A mask of all the squares that contain a white piece or a white king.
+     * @param kings A mask of all the squares that contain a king (of either colour).
+     * @return The xor of the numbers for every piece.
+     */
+    static long getPieceKey(int red, int white, int kings) {
+        long key = 0;
+        for (int remaining = red | white; remaining != 0; remaining &= remaining - 1) {
+            int square = Integer.numberOfTrailingZeros(remaining);
+            key ^= PIECES[getType((red >>> square & 1) != 0, (kings >>> square & 1) != 0)][square];
+        }
+        return key;
+    }
+
+    /**
+     * @param isRed Whether or not the piece is red.
+     * @param isKing Whether or not the piece is a king.
+     * @return The type of the piece, such as RED_PIECE.
+     */
+    static int getType(boolean isRed, boolean isKing) {
+        return (isRed ? RED_PIECE : WHITE_PIECE) + (isKing ? 1 : 0);
+    }
+}
@@ -0,0 +1,81 @@
+package com.gmail.amaarquadri.checkers.engine.tools;
+
+import com.gmail.amaarquadri.checkers.engine.GameRules;
+import com.gmail.amaarquadri.checkers.engine.PackedMove;
+import com.gmail.amaarquadri.checkers.engine.Position;
+import com.gmail.amaarquadri.checkers.engine.SearchLimits;
+import com.gmail.amaarquadri.checkers.engine.SearchOptions;
+import com.gmail.amaarquadri.checkers.engine.Searcher;
+import com.gmail.amaarquadri.checkers.engine.TranspositionTable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Random;
+
+/**
+ * Command line tool that runs the AI on serialized boards without Android, for batch analysis and profiling.
+ * Boards are in the same 33 character format as CheckerBoard.getSerialization(), and are read one per line from the
+ * command line or, if none are given there, from standard input.
+ * For each board, the move that the AI would pick is printed along with its value, the time it took and the SearchStatistics.
+ * The optional thread count runs the search with Lazy SMP helpers, for machines with many processors.
+ * Usage: Analyze depth rulesIndex [threads] [serializedBoard...]
+ */
+public final class Analyze {
+    /**
+     * Prevents Analyze initialization.
+     */
+    private Analyze() {
+        throw new AssertionError();
+    }
+
+
+    /**
+     * Runs the analysis.
+     *
+     * @param args The depth, the index of the GameRules (see GameRules.getIndex()), and optionally the number of Threads
+     *             and the serialized boards.
+     * @throws IOException If standard input cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: Analyze depth rulesIndex [threads] [serializedBoard...]");
+            System.exit(1);
+        }
+        int depth = Integer.parseInt(args[0]);
+        //serialized boards always start with T or F, so they can never be mistaken for a thread count
+        int boardsStart = args.length > 2 && args[2].matches("\\d+") ? 3 : 2;
+        int threadCount = boardsStart == 3 ? Integer.parseInt(args[2]) : 1;
+        Searcher searcher = new Searcher(GameRules.fromIndex(Integer.parseInt(args[1])),
+                new TranspositionTable(TranspositionTable.DEFAULT_MEGABYTES), SearchOptions.DEFAULT.withThreadCount(threadCount));
+        //a fixed seed makes the output repeatable when moves are tied
+        Random random = new Random(0);
+
+        if (args.length > boardsStart) for (int n = boardsStart; n < args.length; n++) analyze(searcher, random, args[n], depth);
+        else {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                line = line.trim();
+                if (!line.isEmpty()) analyze(searcher, random, line, depth);
+            }
+        }
+    }
+
+    /**
+     * Picks a move on a single serialized board and prints the result.
+     *
+     * @param searcher The Searcher to use.
+     * @param random Used to choose between moves that are tied for the best value.
+     * @param serializedBoard The serialized board to analyze.
+     * @param depth The number of layers to search after each possible move.
+     */
+    private static void analyze(Searcher searcher, Random random, String serializedBoard, int depth) {
+        Position position = Position.fromSerialization(serializedBoard);
+        long startTime = System.nanoTime();
+        long move = searcher.pickMove(position, Position.isRedTurn(serializedBoard), SearchLimits.ofDepth(depth), random);
+        long timeElapsed = (System.nanoTime() - startTime) / 1000000;
+        if (move == PackedMove.NONE) System.out.println(serializedBoard + "\tno moves");
+        else System.out.println(serializedBoard + "\t" + PackedMove.toString(move) + "\t" + searcher.getRootValue() +
+                "\t" + timeElapsed + "ms\t" + searcher.getStatistics());
+    }
+}
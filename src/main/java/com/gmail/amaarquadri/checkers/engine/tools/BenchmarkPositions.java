@@ -0,0 +1,56 @@
+package com.gmail.amaarquadri.checkers.engine.tools;
+
+import com.gmail.amaarquadri.checkers.engine.GameRules;
+import com.gmail.amaarquadri.checkers.engine.MoveGenerator;
+import com.gmail.amaarquadri.checkers.engine.Position;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Creates the fixed sets of positions that the command line tools measure, so that every run measures the same trees.
+ */
+final class BenchmarkPositions {
+    /**
+     * Prevents BenchmarkPositions initialization.
+     */
+    private BenchmarkPositions() {
+        throw new AssertionError();
+    }
+
+
+    /**
+     * The seed used to create the positions.
+     */
+    static final long SEED = 20161219L;
+
+
+    /**
+     * Creates positions by playing random moves from the starting board. Games that end are thrown away.
+     *
+     * @param rules The rules to play by.
+     * @param count The number of positions to create.
+     * @param maxPlies The maximum number of random moves to play from the starting board.
+     * @return The serializations of the positions, which include whose turn it is.
+     */
+    static ArrayList<String> create(GameRules rules, int count, int maxPlies) {
+        Random random = new Random(SEED);
+        MoveGenerator moveGenerator = MoveGenerator.forRules(rules);
+        long[] moves = new long[MoveGenerator.MAX_MOVES];
+        ArrayList<String> positions = new ArrayList<>();
+        while (positions.size() < count) {
+            Position position = Position.fromSerialization(Position.INITIAL_SERIALIZATION);
+            boolean isRedTurn = true;
+            int plies = random.nextInt(maxPlies + 1);
+            for (int ply = 0; ply < plies; ply++) {
+                int moveCount = moveGenerator.generateMoves(isRedTurn, position, moves);
+                if (moveCount == 0) break;
+                position.make(moves[random.nextInt(moveCount)]);
+                isRedTurn = !isRedTurn;
+            }
+            //finished games have no tree to measure
+            if (moveGenerator.canMove(isRedTurn, position)) positions.add(position.getSerialization(isRedTurn));
+        }
+        return positions;
+    }
+}
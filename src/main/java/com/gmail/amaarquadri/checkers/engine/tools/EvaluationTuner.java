@@ -0,0 +1,437 @@
+package com.gmail.amaarquadri.checkers.engine.tools;
+
+import com.gmail.amaarquadri.checkers.engine.GameRules;
+import com.gmail.amaarquadri.checkers.engine.MoveGenerator;
+import com.gmail.amaarquadri.checkers.engine.PatternEvaluator;
+import com.gmail.amaarquadri.checkers.engine.Position;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Command line tool that tunes the weights of a PatternEvaluator to a set of labelled Positions (Texel's tuning method).
+ * Every line of the data file is a serialized board (in the same 33 character format as Position.getSerialization())
+ * followed by the result of the game it was taken from, from red's perspective: 1 for a win, 0.5 for a draw and 0 for a loss.
+ * The evaluation of each Position is turned into an expected result with a sigmoid, and the weights are fitted by
+ * gradient descent (with Adam step sizes) to minimize the mean squared difference between the expected and actual results.
+ * Positions where the player to move can kill are skipped, since their evaluation is not what the search would use.
+ * <p>
+ * The data file is read again for every epoch, a chunk of lines at a time, so it can be much larger than the memory.
+ * Each chunk is split across the given number of Threads, which each add up the gradient of their own part.
+ * The weights file is written after every epoch, so the tuner can be stopped at any time.
+ * Usage: EvaluationTuner dataFile rulesIndex epochs outputFile [initialWeightsFile] [learningRate] [threads]
+ * where an initialWeightsFile of - starts from PatternEvaluator.createDefault().
+ */
+public final class EvaluationTuner {
+    //STATIC MEMBERS
+
+
+    /**
+     * The number of lines read from the data file at once.
+     */
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    /**
+     * The default size of the steps of the weights, in the units of the evaluation.
+     */
+    private static final double DEFAULT_LEARNING_RATE = 100000;
+
+    /**
+     * How quickly Adam forgets old gradients.
+     */
+    private static final double BETA_1 = 0.9;
+
+    /**
+     * How quickly Adam forgets old squared gradients.
+     */
+    private static final double BETA_2 = 0.999;
+
+    /**
+     * Keeps Adam from dividing by zero. It is tiny, since the gradients are tiny when the sigmoid scale is.
+     */
+    private static final double EPSILON = 1e-30;
+
+    /**
+     * Runs the tuner.
+     *
+     * @param args The data file, the index of the GameRules (see GameRules.getIndex()), the number of epochs, the weights
+     *             file to write, and optionally the weights file to start from (or - for the default weights),
+     *             the learning rate and the number of Threads.
+     * @throws IOException If a file cannot be read or written.
+     * @throws InterruptedException If the Thread is interrupted while waiting for a chunk to finish.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 4) {
+            System.err.println("Usage: EvaluationTuner dataFile rulesIndex epochs outputFile [initialWeightsFile] [learningRate] [threads]");
+            System.exit(1);
+        }
+        File dataFile = new File(args[0]);
+        GameRules rules = GameRules.fromIndex(Integer.parseInt(args[1]));
+        int epochs = Integer.parseInt(args[2]);
+        File outputFile = new File(args[3]);
+        PatternEvaluator initial = args.length > 4 && !args[4].equals("-") ?
+                PatternEvaluator.open(new File(args[4])) : PatternEvaluator.createDefault();
+        double learningRate = args.length > 5 ? Double.parseDouble(args[5]) : DEFAULT_LEARNING_RATE;
+        int threadCount = args.length > 6 ? Integer.parseInt(args[6]) : Runtime.getRuntime().availableProcessors();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            EvaluationTuner tuner = new EvaluationTuner(dataFile, rules, initial, learningRate, executor, threadCount);
+            tuner.fitScale();
+            for (int epoch = 0; epoch < epochs; epoch++) {
+                long startTime = System.nanoTime();
+                double error = tuner.runEpoch();
+                tuner.getEvaluator().write(outputFile);
+                System.out.println("epoch " + epoch + "\terror " + error + "\t" + (System.nanoTime() - startTime) / 1000000 + "ms");
+            }
+            System.out.println("final error " + tuner.getError() + ", wrote " + outputFile);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @param value The evaluation of a Position from red's perspective.
+     * @param scale What the evaluation is multiplied by before the sigmoid.
+     * @return The expected result of the game from red's perspective, from 0 to 1.
+     */
+    private static double getExpectedResult(double value, double scale) {
+        return 1 / (1 + Math.exp(-scale * value));
+    }
+
+
+    //INSTANCE VARIABLES
+
+
+    /**
+     * The labelled Positions.
+     */
+    private final File dataFile;
+
+    /**
+     * Finds the Positions where the player to move can kill.
+     */
+    private final MoveGenerator moveGenerator;
+
+    /**
+     * The weights being tuned. They are kept as doubles so that small steps add up, and only rounded when they are written.
+     */
+    private final double[] weights;
+
+    /**
+     * Adam's running average of the gradient of every weight.
+     */
+    private final double[] firstMoments;
+
+    /**
+     * Adam's running average of the squared gradient of every weight.
+     */
+    private final double[] secondMoments;
+
+    /**
+     * The size of the steps of the weights.
+     */
+    private final double learningRate;
+
+    /**
+     * What the evaluation is multiplied by before the sigmoid. It is fitted once, before the weights are changed.
+     */
+    private double scale;
+
+    /**
+     * The number of steps taken so far.
+     */
+    private int steps;
+
+    /**
+     * Adds up the parts of each chunk.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * What every Thread adds its part of a chunk to. Each chunk is split into one part for each of them.
+     */
+    private final Accumulator[] accumulators;
+
+
+    /**
+     * Creates a new EvaluationTuner.
+     *
+     * @param dataFile The labelled Positions.
+     * @param rules The rules of the games that the Positions were taken from.
+     * @param initial The weights to start from.
+     * @param learningRate The size of the steps of the weights.
+     * @param executor Adds up the parts of each chunk.
+     * @param threadCount The number of parts to split each chunk into.
+     */
+    private EvaluationTuner(File dataFile, GameRules rules, PatternEvaluator initial, double learningRate,
+                            ExecutorService executor, int threadCount) {
+        this.dataFile = dataFile;
+        moveGenerator = MoveGenerator.forRules(rules);
+        int[] initialWeights = initial.getWeights();
+        weights = new double[initialWeights.length];
+        for (int i = 0; i < weights.length; i++) weights[i] = initialWeights[i];
+        firstMoments = new double[weights.length];
+        secondMoments = new double[weights.length];
+        this.learningRate = learningRate;
+        scale = 0;
+        steps = 0;
+        this.executor = executor;
+        accumulators = new Accumulator[threadCount];
+        for (int n = 0; n < threadCount; n++) accumulators[n] = new Accumulator(weights.length);
+    }
+
+    /**
+     * Fits the sigmoid scale to the initial weights with a golden section search, using the first chunk of the data.
+     * The error is minimized over the logarithm of the scale, since the right scale depends on the units of the weights.
+     *
+     * @throws IOException If the data file cannot be read.
+     * @throws InterruptedException If the Thread is interrupted while waiting for a chunk to finish.
+     */
+    private void fitScale() throws IOException, InterruptedException {
+        List<String> lines = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(dataFile), "UTF-8"));
+        try {
+            for (String line = reader.readLine(); line != null && lines.size() < CHUNK_SIZE; line = reader.readLine()) lines.add(line);
+        } finally {
+            reader.close();
+        }
+        //a man is worth about 10^7, so the scale that makes it worth a sensible amount is somewhere around 10^-7
+        double low = -12, high = -2, ratio = (Math.sqrt(5) - 1) / 2;
+        for (int iteration = 0; iteration < 40; iteration++) {
+            double first = high - ratio * (high - low), second = low + ratio * (high - low);
+            if (getChunkError(lines, Math.pow(10, first)) < getChunkError(lines, Math.pow(10, second))) high = second;
+            else low = first;
+        }
+        scale = Math.pow(10, (low + high) / 2);
+        System.out.println("scale " + scale + "\terror " + getChunkError(lines, scale));
+    }
+
+    /**
+     * @param lines A chunk of the data file.
+     * @param scale What the evaluation is multiplied by before the sigmoid.
+     * @return The mean error of the chunk with the current weights.
+     * @throws InterruptedException If the Thread is interrupted while waiting for the chunk to finish.
+     */
+    private double getChunkError(List<String> lines, double scale) throws InterruptedException {
+        double oldScale = this.scale;
+        this.scale = scale;
+        for (Accumulator accumulator : accumulators) accumulator.reset();
+        addChunk(lines, false);
+        this.scale = oldScale;
+        return getMeanError();
+    }
+
+    /**
+     * Reads the whole data file once, and takes a single step of the weights along the gradient of the mean error.
+     *
+     * @return The mean error before the step.
+     * @throws IOException If the data file cannot be read.
+     * @throws InterruptedException If the Thread is interrupted while waiting for a chunk to finish.
+     */
+    private double runEpoch() throws IOException, InterruptedException {
+        readAll(true);
+        double error = getMeanError();
+        int positionCount = 0;
+        for (Accumulator accumulator : accumulators) positionCount += accumulator.positionCount;
+        if (positionCount == 0) throw new IllegalStateException("There are no quiet Positions in " + dataFile);
+
+        steps++;
+        double firstCorrection = 1 - Math.pow(BETA_1, steps), secondCorrection = 1 - Math.pow(BETA_2, steps);
+        for (int i = 0; i < weights.length; i++) {
+            double gradient = 0;
+            for (Accumulator accumulator : accumulators) gradient += accumulator.gradient[i];
+            //weights that no Position uses are left alone
+            if (gradient == 0 && firstMoments[i] == 0) continue;
+            gradient /= positionCount;
+            firstMoments[i] = BETA_1 * firstMoments[i] + (1 - BETA_1) * gradient;
+            secondMoments[i] = BETA_2 * secondMoments[i] + (1 - BETA_2) * gradient * gradient;
+            weights[i] -= learningRate * (firstMoments[i] / firstCorrection) / (Math.sqrt(secondMoments[i] / secondCorrection) + EPSILON);
+        }
+        return error;
+    }
+
+    /**
+     * @return The mean error of the whole data file with the current weights.
+     * @throws IOException If the data file cannot be read.
+     * @throws InterruptedException If the Thread is interrupted while waiting for a chunk to finish.
+     */
+    private double getError() throws IOException, InterruptedException {
+        readAll(false);
+        return getMeanError();
+    }
+
+    /**
+     * Reads the whole data file one chunk at a time, adding every chunk to the accumulators.
+     *
+     * @param isGradientNeeded Whether or not to add up the gradient as well as the error.
+     * @throws IOException If the data file cannot be read.
+     * @throws InterruptedException If the Thread is interrupted while waiting for a chunk to finish.
+     */
+    private void readAll(boolean isGradientNeeded) throws IOException, InterruptedException {
+        for (Accumulator accumulator : accumulators) accumulator.reset();
+        List<String> lines = new ArrayList<>(CHUNK_SIZE);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(dataFile), "UTF-8"));
+        try {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lines.add(line);
+                if (lines.size() == CHUNK_SIZE) {
+                    addChunk(lines, isGradientNeeded);
+                    lines.clear();
+                }
+            }
+            if (!lines.isEmpty()) addChunk(lines, isGradientNeeded);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Splits a chunk into one part for every accumulator, and waits for all of them to be added.
+     *
+     * @param lines The lines of the chunk.
+     * @param isGradientNeeded Whether or not to add up the gradient as well as the error.
+     * @throws InterruptedException If the Thread is interrupted while waiting for the chunk to finish.
+     */
+    private void addChunk(final List<String> lines, final boolean isGradientNeeded) throws InterruptedException {
+        List<Callable<Void>> parts = new ArrayList<>();
+        for (int n = 0; n < accumulators.length; n++) {
+            final Accumulator accumulator = accumulators[n];
+            final int start = n * lines.size() / accumulators.length, end = (n + 1) * lines.size() / accumulators.length;
+            parts.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int i = start; i < end; i++) addLine(lines.get(i), accumulator, isGradientNeeded);
+                    return null;
+                }
+            });
+        }
+        for (Future<Void> result : executor.invokeAll(parts)) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("A part of a chunk failed", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Adds the error of a single line, and optionally its gradient, to an accumulator.
+     *
+     * @param line The line of the data file.
+     * @param accumulator The accumulator of the current Thread.
+     * @param isGradientNeeded Whether or not to add up the gradient as well as the error.
+     */
+    private void addLine(String line, Accumulator accumulator, boolean isGradientNeeded) {
+        line = line.trim();
+        if (line.isEmpty()) return;
+        String[] parts = line.split("\\s+");
+        if (parts.length != 2) throw new IllegalArgumentException("Expected a serialized board and a result: " + line);
+        Position position = Position.fromSerialization(parts[0]);
+        double result = Double.parseDouble(parts[1]);
+        if (result < 0 || result > 1) throw new IllegalArgumentException("The result must be from 0 to 1: " + line);
+        if (moveGenerator.generateKills(Position.isRedTurn(parts[0]), position, accumulator.moves) > 0) return;
+
+        int featureCount = PatternEvaluator.getFeatures(position, accumulator.indices, accumulator.coefficients);
+        double value = 0;
+        for (int n = 0; n < featureCount; n++) value += weights[accumulator.indices[n]] * accumulator.coefficients[n];
+        double expected = getExpectedResult(value, scale);
+        accumulator.error += (result - expected) * (result - expected);
+        accumulator.positionCount++;
+        if (!isGradientNeeded) return;
+        //the derivative of (result - expected)^2 with respect to the value
+        double derivative = -2 * (result - expected) * expected * (1 - expected) * scale;
+        for (int n = 0; n < featureCount; n++) accumulator.gradient[accumulator.indices[n]] += derivative * accumulator.coefficients[n];
+    }
+
+    /**
+     * @return The mean error of every Position that was added to the accumulators since they were reset.
+     */
+    private double getMeanError() {
+        double error = 0;
+        int positionCount = 0;
+        for (Accumulator accumulator : accumulators) {
+            error += accumulator.error;
+            positionCount += accumulator.positionCount;
+        }
+        return positionCount == 0 ? 0 : error / positionCount;
+    }
+
+    /**
+     * @return A PatternEvaluator with the current weights, rounded to ints.
+     */
+    private PatternEvaluator getEvaluator() {
+        int[] rounded = new int[weights.length];
+        for (int i = 0; i < weights.length; i++) rounded[i] = (int) Math.round(weights[i]);
+        return new PatternEvaluator(rounded);
+    }
+
+
+    /**
+     * What a single Thread adds up. Only one Thread uses each Accumulator at a time.
+     */
+    private static final class Accumulator {
+        /**
+         * The sum of the gradient of the error of every Position.
+         */
+        private final double[] gradient;
+
+        /**
+         * The sum of the error of every Position.
+         */
+        private double error;
+
+        /**
+         * The number of Positions that were added.
+         */
+        private int positionCount;
+
+        /**
+         * A reusable array that the kills of a Position are generated into.
+         */
+        private final long[] moves;
+
+        /**
+         * A reusable array that the indices of the terms of a Position are listed in.
+         */
+        private final int[] indices;
+
+        /**
+         * A reusable array that the coefficients of the terms of a Position are listed in.
+         */
+        private final int[] coefficients;
+
+
+        /**
+         * Creates a new empty Accumulator.
+         *
+         * @param weightCount The number of weights.
+         */
+        private Accumulator(int weightCount) {
+            gradient = new double[weightCount];
+            moves = new long[MoveGenerator.MAX_MOVES];
+            indices = new int[PatternEvaluator.MAX_FEATURES];
+            coefficients = new int[PatternEvaluator.MAX_FEATURES];
+        }
+
+        /**
+         * Removes everything that was added.
+         */
+        private void reset() {
+            Arrays.fill(gradient, 0);
+            error = 0;
+            positionCount = 0;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.gmail.amaarquadri.checkers.engine.tools;
+
+import com.gmail.amaarquadri.checkers.engine.GameRules;
+import com.gmail.amaarquadri.checkers.engine.MoveGenerator;
+import com.gmail.amaarquadri.checkers.engine.OpeningBook;
+import com.gmail.amaarquadri.checkers.engine.Position;
+import com.gmail.amaarquadri.checkers.engine.SearchOptions;
+import com.gmail.amaarquadri.checkers.engine.Searcher;
+import com.gmail.amaarquadri.checkers.engine.TranspositionTable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Command line tool that builds the file that OpeningBook reads.
+ * Starting from the initial board, every move of a Position is searched to the given depth, and the moves whose values
+ * are within the given margin of the best one go in the book, with higher weights for the moves that are closer to it.
+ * The Positions after those moves are expanded in the same way, one ply at a time, until the given number of plies.
+ * Positions that are reached by more than one line are only searched once.
+ * The Positions of every ply are split across the given number of Threads, which each have their own Searcher.
+ * Usage: OpeningBookBuilder plies depth margin rulesIndex [file] [threads]
+ */
+public final class OpeningBookBuilder {
+    /**
+     * Runs the builder.
+     *
+     * @param args The number of plies to expand, the search depth, the margin (in the units of the Evaluator),
+     *             the index of the GameRules (see GameRules.getIndex()), and optionally the file to write and the
+     *             number of Threads.
+     * @throws IOException If the file cannot be written.
+     * @throws InterruptedException If the Thread is interrupted while waiting for a ply to finish.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 4) {
+            System.err.println("Usage: OpeningBookBuilder plies depth margin rulesIndex [file] [threads]");
+            System.exit(1);
+        }
+        int plies = Integer.parseInt(args[0]);
+        int depth = Integer.parseInt(args[1]);
+        if (depth < 1 || depth > Searcher.MAX_DEPTH) throw new IllegalArgumentException("depth must be from 1 to " + Searcher.MAX_DEPTH);
+        int margin = Integer.parseInt(args[2]);
+        GameRules rules = GameRules.fromIndex(Integer.parseInt(args[3]));
+        File file = new File(args.length > 4 ? args[4] : OpeningBook.getFileName(rules));
+        int threadCount = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<OpeningBook.Entry> entries = new OpeningBookBuilder(rules, depth, margin, executor).build(plies);
+            OpeningBook.write(file, rules, entries);
+            System.out.println("wrote " + entries.size() + " entries to " + file);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+
+    //INSTANCE VARIABLES
+
+
+    /**
+     * Generates the moves of every Position.
+     */
+    private final MoveGenerator moveGenerator;
+
+    /**
+     * The number of layers to search after each move.
+     */
+    private final int depth;
+
+    /**
+     * How far below the value of the best move the value of a move can be for it to go in the book.
+     */
+    private final int margin;
+
+    /**
+     * Searches the Positions of every ply.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The Searcher of every Thread of the executor, which keeps its TranspositionTable between Positions.
+     */
+    private final ThreadLocal<Searcher> searchers;
+
+
+    /**
+     * Creates a new OpeningBookBuilder.
+     *
+     * @param rules The rules of the game.
+     * @param depth The number of layers to search after each move.
+     * @param margin How far below the value of the best move the value of a move can be for it to go in the book.
+     * @param executor Searches the Positions of every ply.
+     */
+    private OpeningBookBuilder(final GameRules rules, int depth, int margin, ExecutorService executor) {
+        moveGenerator = MoveGenerator.forRules(rules);
+        this.depth = depth;
+        this.margin = margin;
+        this.executor = executor;
+        searchers = new ThreadLocal<Searcher>() {
+            @Override
+            protected Searcher initialValue() {
+                return new Searcher(rules, new TranspositionTable(TranspositionTable.DEFAULT_MEGABYTES), SearchOptions.DEFAULT);
+            }
+        };
+    }
+
+    /**
+     * Expands the opening tree from the initial board.
+     *
+     * @param plies The number of plies to expand.
+     * @return The Entries of every Position that was expanded.
+     * @throws InterruptedException If the Thread is interrupted while waiting for a ply to finish.
+     */
+    private List<OpeningBook.Entry> build(int plies) throws InterruptedException {
+        List<OpeningBook.Entry> entries = new ArrayList<>();
+        List<Position> positions = new ArrayList<>();
+        positions.add(Position.fromSerialization(Position.INITIAL_SERIALIZATION));
+        boolean isRedTurn = Position.isRedTurn(Position.INITIAL_SERIALIZATION);
+        Set<Long> visited = new HashSet<>();
+        visited.add(positions.get(0).getKey(isRedTurn));
+
+        for (int ply = 0; ply < plies && !positions.isEmpty(); ply++) {
+            long startTime = System.nanoTime();
+            List<Callable<List<OpeningBook.Entry>>> searches = new ArrayList<>();
+            for (final Position position : positions) {
+                final boolean isSearchRedTurn = isRedTurn;
+                searches.add(new Callable<List<OpeningBook.Entry>>() {
+                    @Override
+                    public List<OpeningBook.Entry> call() {
+                        return search(position, isSearchRedTurn);
+                    }
+                });
+            }
+
+            //every move that went in the book leads to a Position for the next ply
+            List<Position> nextPositions = new ArrayList<>();
+            int entryCount = 0;
+            List<Future<List<OpeningBook.Entry>>> results = executor.invokeAll(searches);
+            for (int i = 0; i < positions.size(); i++) {
+                List<OpeningBook.Entry> positionEntries;
+                try {
+                    positionEntries = results.get(i).get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("A search of ply " + ply + " failed", e.getCause());
+                }
+                entries.addAll(positionEntries);
+                entryCount += positionEntries.size();
+                for (OpeningBook.Entry entry : positionEntries) {
+                    Position child = new Position(positions.get(i));
+                    child.make(entry.getMove());
+                    if (visited.add(child.getKey(!isRedTurn))) nextPositions.add(child);
+                }
+            }
+            System.out.println("ply " + ply + "\t" + positions.size() + " positions\t" + entryCount + " entries\t" +
+                    (System.nanoTime() - startTime) / 1000000 + "ms");
+            positions = nextPositions;
+            isRedTurn = !isRedTurn;
+        }
+        return entries;
+    }
+
+    /**
+     * Searches every move of a Position with the Searcher of the current Thread.
+     *
+     * @param position The Position to search. It is not modified.
+     * @param isRedTurn Whether or not it is red's turn on the given Position.
+     * @return The Entries of the moves that are within the margin of the best move.
+     */
+    private List<OpeningBook.Entry> search(Position position, boolean isRedTurn) {
+        Searcher searcher = searchers.get();
+        long[] moves = new long[MoveGenerator.MAX_MOVES];
+        int moveCount = moveGenerator.generateMoves(isRedTurn, position, moves);
+        //the value of every move from the perspective of the player whose turn it is
+        int[] values = new int[moveCount];
+        int bestValue = Integer.MIN_VALUE;
+        Position child = new Position(position);
+        for (int i = 0; i < moveCount; i++) {
+            int killedKings = child.make(moves[i]);
+            int value = searcher.getValue(child, !isRedTurn, depth - 1);
+            child.unmake(moves[i], killedKings);
+            values[i] = isRedTurn ? value : -value;
+            bestValue = Math.max(bestValue, values[i]);
+        }
+
+        List<OpeningBook.Entry> entries = new ArrayList<>();
+        long key = position.getKey(isRedTurn);
+        for (int i = 0; i < moveCount; i++) {
+            //a long, since a lost move can be further behind a won one than an int can hold
+            long behind = (long) bestValue - values[i];
+            if (behind <= margin) entries.add(new OpeningBook.Entry(key, moves[i], (int) (margin - behind) + 1, values[i]));
+        }
+        return entries;
+    }
+}
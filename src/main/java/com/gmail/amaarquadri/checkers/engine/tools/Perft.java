@@ -0,0 +1,190 @@
+package com.gmail.amaarquadri.checkers.engine.tools;
+
+import com.gmail.amaarquadri.checkers.engine.GameRules;
+import com.gmail.amaarquadri.checkers.engine.MoveGenerator;
+import com.gmail.amaarquadri.checkers.engine.PackedMove;
+import com.gmail.amaarquadri.checkers.engine.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Command line tool that counts the leaves of the tree of every possible game to a fixed depth (perft), to check the
+ * MoveGenerator against known counts and to measure how fast it is.
+ * The count of every move of the starting Position is printed (divide), so that a wrong total can be narrowed down to a
+ * single move by running perft again on the Position after it.
+ * The last layer is counted without making its moves (bulk counting), the moves of the starting Position are split
+ * across the given number of Threads, and the counts of (Position, depth) pairs can be remembered in a hash table that
+ * is shared by every Thread, since the same Position is reached by many different orders of the same moves.
+ * Usage: Perft depth rulesIndex [serializedBoard|-] [threads] [hashMegabytes]
+ * where a serializedBoard of - starts from the initial board, and a hashMegabytes of 0 (the default) turns the hash table off.
+ */
+public final class Perft {
+    //STATIC MEMBERS
+
+
+    /**
+     * Mixed into the key of a Position for every layer, so that the counts of the same Position at different depths
+     * go in different entries.
+     */
+    private static final long DEPTH_KEY = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Runs perft.
+     *
+     * @param args The depth, the index of the GameRules (see GameRules.getIndex()), and optionally the serialized board
+     *             to start from (or - for the initial board), the number of Threads and the size of the hash table in megabytes.
+     * @throws InterruptedException If the Thread is interrupted while waiting for the counts to finish.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Usage: Perft depth rulesIndex [serializedBoard|-] [threads] [hashMegabytes]");
+            System.exit(1);
+        }
+        int depth = Integer.parseInt(args[0]);
+        if (depth < 1) throw new IllegalArgumentException("depth must be at least 1");
+        GameRules rules = GameRules.fromIndex(Integer.parseInt(args[1]));
+        String serializedBoard = args.length > 2 && !args[2].equals("-") ? args[2] : Position.INITIAL_SERIALIZATION;
+        int threadCount = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        int hashMegabytes = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+
+        Perft perft = new Perft(rules, hashMegabytes);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            System.out.println(rules + ", depth " + depth + ", " + threadCount + " threads, hash " + hashMegabytes + "MB");
+            long startTime = System.nanoTime();
+            long nodes = perft.divide(Position.fromSerialization(serializedBoard), Position.isRedTurn(serializedBoard), depth, executor);
+            long time = System.nanoTime() - startTime;
+            System.out.println("nodes " + nodes + "\t" + time / 1000000 + "ms\t" + nodes * 1000000000 / Math.max(time, 1) + " nodes/s");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+
+    //INSTANCE VARIABLES
+
+
+    /**
+     * Generates the moves of every Position.
+     */
+    private final MoveGenerator moveGenerator;
+
+    /**
+     * The remembered counts, 2 longs per entry: (key ^ count) and count, so that an entry that was torn by two Threads
+     * writing it at once is never mistaken for a match. Null if the hash table is turned off.
+     */
+    private final long[] table;
+
+    /**
+     * The number of entries minus one. The number of entries is a power of 2, so this masks a key down to an entry.
+     */
+    private final int mask;
+
+
+    /**
+     * Creates a new Perft.
+     *
+     * @param rules The rules of the game.
+     * @param hashMegabytes The size of the hash table in megabytes, or 0 to turn it off.
+     */
+    private Perft(GameRules rules, int hashMegabytes) {
+        moveGenerator = MoveGenerator.forRules(rules);
+        if (hashMegabytes <= 0) {
+            table = null;
+            mask = 0;
+        } else {
+            //an array cannot have more than Integer.MAX_VALUE elements
+            long entries = Math.min(Long.highestOneBit(((long) hashMegabytes << 20) / 16), 1 << 29);
+            table = new long[2 * (int) entries];
+            mask = (int) entries - 1;
+        }
+    }
+
+    /**
+     * Counts the leaves below every move of a Position on its own Thread, and prints the count of each move.
+     *
+     * @param root The Position to count the leaves of. It is not modified.
+     * @param isRedTurn Whether or not it is red's turn on the given Position.
+     * @param depth The number of layers to count, at least 1.
+     * @param executor Runs the counts of the moves.
+     * @return The total number of leaves.
+     * @throws InterruptedException If the Thread is interrupted while waiting for the counts to finish.
+     */
+    private long divide(Position root, final boolean isRedTurn, final int depth, ExecutorService executor) throws InterruptedException {
+        long[] moves = new long[MoveGenerator.MAX_MOVES];
+        int moveCount = moveGenerator.generateMoves(isRedTurn, root, moves);
+        List<Callable<Long>> counts = new ArrayList<>();
+        for (int i = 0; i < moveCount; i++) {
+            //every count has its own copy of the Position, since make() and unmake() change it
+            final Position position = new Position(root);
+            final long move = moves[i];
+            counts.add(new Callable<Long>() {
+                @Override
+                public Long call() {
+                    long[][] moveStack = new long[depth][MoveGenerator.MAX_MOVES];
+                    int killedKings = position.make(move);
+                    long nodes = count(position, !isRedTurn, depth - 1, moveStack);
+                    position.unmake(move, killedKings);
+                    return nodes;
+                }
+            });
+        }
+
+        long nodes = 0;
+        List<Future<Long>> results = executor.invokeAll(counts);
+        for (int i = 0; i < moveCount; i++) {
+            long moveNodes;
+            try {
+                moveNodes = results.get(i).get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("The count of " + PackedMove.toString(moves[i]) + " failed", e.getCause());
+            }
+            System.out.println(PackedMove.toString(moves[i]) + "\t" + moveNodes);
+            nodes += moveNodes;
+        }
+        return nodes;
+    }
+
+    /**
+     * @param position The Position to count the leaves of. It is restored before returning.
+     * @param isRedTurn Whether or not it is red's turn.
+     * @param depth The number of layers left.
+     * @param moveStack A preallocated array of moves for every layer.
+     * @return The number of leaves of the tree.
+     */
+    private long count(Position position, boolean isRedTurn, int depth, long[][] moveStack) {
+        if (depth == 0) return 1;
+        long[] moves = moveStack[depth];
+        int moveCount = moveGenerator.generateMoves(isRedTurn, position, moves);
+        //the leaves are the moves of the last layer, so they never need to be made
+        if (depth == 1) return moveCount;
+
+        long key = 0;
+        int index = 0;
+        if (table != null) {
+            key = position.getKey(isRedTurn) + depth * DEPTH_KEY;
+            index = 2 * ((int) key & mask);
+            long nodes = table[index + 1];
+            if ((table[index] ^ nodes) == key) return nodes;
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < moveCount; i++) {
+            int killedKings = position.make(moves[i]);
+            nodes += count(position, !isRedTurn, depth - 1, moveStack);
+            position.unmake(moves[i], killedKings);
+        }
+
+        if (table != null) {
+            table[index] = key ^ nodes;
+            table[index + 1] = nodes;
+        }
+        return nodes;
+    }
+}
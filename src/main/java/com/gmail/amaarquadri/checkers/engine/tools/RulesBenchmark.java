@@ -0,0 +1,394 @@
+package com.gmail.amaarquadri.checkers.engine.tools;
+
+import com.gmail.amaarquadri.checkers.engine.GameRules;
+import com.gmail.amaarquadri.checkers.engine.MoveGenerator;
+import com.gmail.amaarquadri.checkers.engine.PackedMove;
+import com.gmail.amaarquadri.checkers.engine.Position;
+
+import java.util.ArrayList;
+
+/**
+ * Command line benchmark that compares the MoveGenerator picked once per GameRules against a generator that
+ * reads mutable static rule flags at every node, like the AI used to do with DataAccessor.
+ * Both generators count the leaves of a fixed depth tree (perft) on the same set of positions for each of the 8 rule sets,
+ * and the nodes per second of each are printed along with the speedup.
+ * Usage: RulesBenchmark [depth] [positions] [rounds]
+ */
+public final class RulesBenchmark {
+    /**
+     * Prevents RulesBenchmark initialization.
+     */
+    private RulesBenchmark() {
+        throw new AssertionError();
+    }
+
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args The optional depth, number of positions, and number of timed rounds.
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int positionCount = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        System.out.println("depth " + depth + ", " + positionCount + " positions, " + rounds + " rounds");
+        System.out.println("rules\tnodes\tflags (nodes/s)\tspecialized (nodes/s)\tspeedup");
+        for (int index = 0; index < 8; index++) {
+            GameRules rules = GameRules.fromIndex(index);
+            ArrayList<String> positions = BenchmarkPositions.create(rules, positionCount, 40);
+
+            //warm up both generators so that the JIT has compiled them before timing starts
+            runBaseline(rules, depth, positions);
+            runSpecialized(rules, depth, positions);
+
+            long baselineNodes = 0, specializedNodes = 0, baselineTime = 0, specializedTime = 0;
+            for (int round = 0; round < rounds; round++) {
+                long startTime = System.nanoTime();
+                baselineNodes += runBaseline(rules, depth, positions);
+                baselineTime += System.nanoTime() - startTime;
+                startTime = System.nanoTime();
+                specializedNodes += runSpecialized(rules, depth, positions);
+                specializedTime += System.nanoTime() - startTime;
+            }
+            if (baselineNodes != specializedNodes)
+                throw new IllegalStateException("The generators disagree for " + rules + ": " + baselineNodes + " != " + specializedNodes);
+
+            double baselineSpeed = baselineNodes * 1e9 / baselineTime, specializedSpeed = specializedNodes * 1e9 / specializedTime;
+            System.out.println(Integer.toBinaryString(index | 8).substring(1) + "\t" + specializedNodes / rounds + "\t" +
+                    (long) baselineSpeed + "\t" + (long) specializedSpeed + "\t" + String.format("%.2fx", specializedSpeed / baselineSpeed));
+        }
+        System.out.println("rules are written as (killAfterKinging, butterflyKilling, flyingKings)");
+    }
+
+    /**
+     * @param rules The rules to play by.
+     * @param depth The depth of the trees.
+     * @param positions The serializations of the roots of the trees.
+     * @return The total number of leaves, counted with the MoveGenerator for the given rules.
+     */
+    private static long runSpecialized(GameRules rules, int depth, ArrayList<String> positions) {
+        MoveGenerator moveGenerator = MoveGenerator.forRules(rules);
+        long[][] moveStack = new long[depth + 1][MoveGenerator.MAX_MOVES];
+        long nodes = 0;
+        for (String serializedBoard : positions) nodes += perft(moveGenerator, Position.fromSerialization(serializedBoard),
+                Position.isRedTurn(serializedBoard), depth, moveStack);
+        return nodes;
+    }
+
+    /**
+     * @param rules The rules to play by.
+     * @param depth The depth of the trees.
+     * @param positions The serializations of the roots of the trees.
+     * @return The total number of leaves, counted with the flag reading generator.
+     */
+    private static long runBaseline(GameRules rules, int depth, ArrayList<String> positions) {
+        FlagReadingMoveGenerator.setGameRules(rules);
+        long[][] moveStack = new long[depth + 1][MoveGenerator.MAX_MOVES];
+        long nodes = 0;
+        for (String serializedBoard : positions)
+            nodes += perftBaseline(Position.fromSerialization(serializedBoard), Position.isRedTurn(serializedBoard), depth, moveStack);
+        return nodes;
+    }
+
+    /**
+     * @param moveGenerator The MoveGenerator to use.
+     * @param position The Position to count the leaves of. It is restored before returning.
+     * @param isRedTurn Whether or not it is red's turn.
+     * @param depth The number of layers left.
+     * @param moveStack A preallocated array of moves for every layer.
+     * @return The number of leaves of the tree.
+     */
+    private static long perft(MoveGenerator moveGenerator, Position position, boolean isRedTurn, int depth, long[][] moveStack) {
+        if (depth == 0) return 1;
+        long[] moves = moveStack[depth];
+        int moveCount = moveGenerator.generateMoves(isRedTurn, position, moves);
+        if (depth == 1) return moveCount;
+        long nodes = 0;
+        for (int i = 0; i < moveCount; i++) {
+            int killedKings = position.make(moves[i]);
+            nodes += perft(moveGenerator, position, !isRedTurn, depth - 1, moveStack);
+            position.unmake(moves[i], killedKings);
+        }
+        return nodes;
+    }
+
+    /**
+     * @param position The Position to count the leaves of. It is restored before returning.
+     * @param isRedTurn Whether or not it is red's turn.
+     * @param depth The number of layers left.
+     * @param moveStack A preallocated array of moves for every layer.
+     * @return The number of leaves of the tree, counted with the flag reading generator.
+     */
+    private static long perftBaseline(Position position, boolean isRedTurn, int depth, long[][] moveStack) {
+        if (depth == 0) return 1;
+        long[] moves = moveStack[depth];
+        int moveCount = FlagReadingMoveGenerator.generateMoves(isRedTurn, position, moves);
+        if (depth == 1) return moveCount;
+        long nodes = 0;
+        for (int i = 0; i < moveCount; i++) {
+            int killedKings = position.make(moves[i]);
+            nodes += perftBaseline(position, !isRedTurn, depth - 1, moveStack);
+            position.unmake(moves[i], killedKings);
+        }
+        return nodes;
+    }
+
+
+    /**
+     * The move generator as it was before GameRules, kept only as the baseline for this benchmark.
+     * The rules are held in static fields that are not final, and are read through methods at every node,
+     * just like the flags in DataAccessor.
+     */
+    private static final class FlagReadingMoveGenerator {
+        /**
+         * Prevents FlagReadingMoveGenerator initialization.
+         */
+        private FlagReadingMoveGenerator() {
+            throw new AssertionError();
+        }
+
+
+        /**
+         * Constants indicating the directions towards the top left, the top right and the bottom left.
+         * Any other direction is towards the bottom right.
+         */
+        private static final int UP_LEFT = 0, UP_RIGHT = 1, DOWN_LEFT = 2;
+
+        /**
+         * Masks of the squares in the even and the odd columns.
+         */
+        private static final int EVEN_COLUMNS = 0x0F0F0F0F, ODD_COLUMNS = 0xF0F0F0F0;
+
+        /**
+         * Masks of the squares in the outer columns, and in the columns next to them where butterfly kills can start.
+         */
+        private static final int COLUMN_0 = 0x0000000F, COLUMN_7 = 0xF0000000, COLUMN_1 = 0x000000F0, COLUMN_6 = 0x0F000000;
+
+        /**
+         * Masks of the squares in the top row, where red pieces are kinged, and the bottom row, where white pieces are kinged.
+         */
+        private static final int ROW_0 = 0x10101010, ROW_7 = 0x08080808;
+
+        /**
+         * The adjacent square, the jumped square and the landing square of a normal jump from every square in every
+         * direction, or -1 if there is none. See MoveGenerator.
+         */
+        private static final int[][] NEIGHBORS = new int[4][32], JUMPED = new int[4][32], LANDING = new int[4][32];
+
+        /**
+         * The jumped square and the landing square of a butterfly kill from every square in every direction,
+         * or -1 if there is none. See MoveGenerator.
+         */
+        private static final int[][] BUTTERFLY_JUMPED = new int[4][32], BUTTERFLY_LANDING = new int[4][32];
+
+        static {
+            for (int square = 0; square < 32; square++) {
+                int i = Position.getI(square), j = Position.getJ(square);
+                for (int direction = 0; direction < 4; direction++) {
+                    int di = direction == UP_LEFT || direction == DOWN_LEFT ? -1 : 1;
+                    int dj = direction == UP_LEFT || direction == UP_RIGHT ? -1 : 1;
+                    NEIGHBORS[direction][square] = getSquareIfValid(i + di, j + dj);
+                    boolean canJump = getSquareIfValid(i + 2 * di, j + 2 * dj) != -1;
+                    JUMPED[direction][square] = canJump ? NEIGHBORS[direction][square] : -1;
+                    LANDING[direction][square] = getSquareIfValid(i + 2 * di, j + 2 * dj);
+                    boolean canButterflyJump = (i == 1 && di == -1 || i == 6 && di == 1) && getSquareIfValid(i, j + 2 * dj) != -1;
+                    BUTTERFLY_JUMPED[direction][square] = canButterflyJump ? NEIGHBORS[direction][square] : -1;
+                    BUTTERFLY_LANDING[direction][square] = canButterflyJump ? getSquareIfValid(i, j + 2 * dj) : -1;
+                }
+            }
+        }
+
+        /**
+         * Whether or not "Flying Kings" are enabled. Not final, like the flag in DataAccessor.
+         */
+        private static boolean areFlyingKingsEnabled;
+
+        /**
+         * Whether or not "Butterfly Killing" is enabled. Not final, like the flag in DataAccessor.
+         */
+        private static boolean isButterflyKillingEnabled;
+
+        /**
+         * Whether or not "Allow Capturing After Kinging" is enabled. Not final, like the flag in DataAccessor.
+         */
+        private static boolean isKillAfterKingingEnabled;
+
+        /**
+         * Changes the rule flags, like changing the settings did.
+         *
+         * @param rules The rules to play by from now on.
+         */
+        private static void setGameRules(GameRules rules) {
+            areFlyingKingsEnabled = rules.areFlyingKingsEnabled();
+            isButterflyKillingEnabled = rules.isButterflyKillingEnabled();
+            isKillAfterKingingEnabled = rules.isKillAfterKingingEnabled();
+        }
+
+        /**
+         * @return Whether or not "Flying Kings" are enabled.
+         */
+        private static boolean areFlyingKingsEnabled() {
+            return areFlyingKingsEnabled;
+        }
+
+        /**
+         * @return Whether or not "Butterfly Killing" is enabled.
+         */
+        private static boolean isButterflyKillingEnabled() {
+            return isButterflyKillingEnabled;
+        }
+
+        /**
+         * @return Whether or not "Allow Capturing After Kinging" is enabled.
+         */
+        private static boolean isKillAfterKingingEnabled() {
+            return isKillAfterKingingEnabled;
+        }
+
+        /**
+         * @param i The horizontal position of a square.
+         * @param j The vertical position of a square.
+         * @return The index of the bit representing the square, or -1 if the position is off the board.
+         */
+        private static int getSquareIfValid(int i, int j) {
+            return i >= 0 && i < 8 && j >= 0 && j < 8 ? Position.getSquare(i, j) : -1;
+        }
+
+        /**
+         * @param direction The direction to shift in.
+         * @param mask The mask to shift.
+         * @return The given mask with every bit moved one square in the given direction, dropping bits that leave the board.
+         */
+        private static int shift(int direction, int mask) {
+            switch (direction) {
+                case UP_LEFT: return (mask & EVEN_COLUMNS & ~COLUMN_0) >>> 4 | (mask & ODD_COLUMNS & ~ROW_0) >>> 5;
+                case UP_RIGHT: return (mask & EVEN_COLUMNS) << 4 | (mask & ODD_COLUMNS & ~ROW_0 & ~COLUMN_7) << 3;
+                case DOWN_LEFT: return (mask & EVEN_COLUMNS & ~ROW_7 & ~COLUMN_0) >>> 3 | (mask & ODD_COLUMNS) >>> 4;
+                default: return (mask & EVEN_COLUMNS & ~ROW_7) << 5 | (mask & ODD_COLUMNS & ~COLUMN_7) << 4;
+            }
+        }
+
+        /**
+         * @param isRedTurn Whether or not it is red's turn.
+         * @param direction The direction of the move.
+         * @param own A mask of the pieces belonging to the player whose turn it is.
+         * @param kings A mask of all the kings.
+         * @return A mask of the pieces that are allowed to move in the given direction.
+         */
+        private static int getMovers(boolean isRedTurn, int direction, int own, int kings) {
+            return isRedTurn == (direction == UP_LEFT || direction == UP_RIGHT) ? own : own & kings;
+        }
+
+        /**
+         * Writes every possible move on the given Position into the given array, starting at index 0.
+         *
+         * @param isRedTurn Whether or not it is red's turn.
+         * @param position The Position on which to perform the operations.
+         * @param moves The array to write the packed moves into. Must have a length of at least MoveGenerator.MAX_MOVES.
+         * @return The number of moves that were written.
+         */
+        private static int generateMoves(boolean isRedTurn, Position position, long[] moves) {
+            int count = 0;
+            int own = isRedTurn ? position.getRed() : position.getWhite();
+            int enemy = isRedTurn ? position.getWhite() : position.getRed();
+            int kings = position.getKings();
+            int empty = ~(position.getRed() | position.getWhite());
+            int kingRow = isRedTurn ? ROW_0 : ROW_7;
+
+            for (int direction = 0; direction < 4; direction++) {
+                int destinations = shift(direction, getMovers(isRedTurn, direction, own, kings)) & empty;
+                for (; destinations != 0; destinations &= destinations - 1) {
+                    int to = Integer.numberOfTrailingZeros(destinations);
+                    int from = NEIGHBORS[3 - direction][to];
+                    moves[count++] = PackedMove.create(from, to, 0, (kings >>> from & 1) == 0 && (kingRow >>> to & 1) != 0);
+                }
+            }
+
+            if (areFlyingKingsEnabled()) for (int remaining = own & kings; remaining != 0; remaining &= remaining - 1) {
+                int from = Integer.numberOfTrailingZeros(remaining);
+                for (int direction = 0; direction < 4; direction++) {
+                    int to = NEIGHBORS[direction][from];
+                    if (to == -1 || (empty >>> to & 1) == 0) continue;
+                    for (to = NEIGHBORS[direction][to]; to != -1 && (empty >>> to & 1) != 0; to = NEIGHBORS[direction][to])
+                        moves[count++] = PackedMove.create(from, to, 0, false);
+                }
+            }
+
+            int jumpers = 0;
+            for (int direction = 0; direction < 4; direction++) {
+                int landings = shift(direction, shift(direction, getMovers(isRedTurn, direction, own, kings)) & enemy) & empty;
+                jumpers |= shift(3 - direction, shift(3 - direction, landings));
+            }
+            if (isButterflyKillingEnabled()) jumpers |= own & (COLUMN_1 | COLUMN_6);
+            for (jumpers &= own; jumpers != 0; jumpers &= jumpers - 1) {
+                int from = Integer.numberOfTrailingZeros(jumpers);
+                count = addKills(isRedTurn, own, enemy, kings, from, from, 0, false, moves, count);
+            }
+            return count;
+        }
+
+        /**
+         * Adds every kill (and every chain of kills) that the selected piece can make to the given array.
+         *
+         * @param isRedTurn Whether or not it is red's turn.
+         * @param own A mask of the pieces belonging to the player whose turn it is, after the kills made so far.
+         * @param enemy A mask of the pieces belonging to the other player, after the kills made so far.
+         * @param kings A mask of all the kings, after the kills made so far.
+         * @param from The square that the selected piece started the move from.
+         * @param square The square that the selected piece is currently on.
+         * @param killed A mask of the squares killed so far.
+         * @param isKinged Whether or not the selected piece has been kinged so far.
+         * @param moves The array to add any new packed moves to.
+         * @param count The number of moves already in the array.
+         * @return The number of moves in the array after adding the new ones.
+         */
+        private static int addKills(boolean isRedTurn, int own, int enemy, int kings, int from, int square, int killed,
+                                    boolean isKinged, long[] moves, int count) {
+            boolean isKing = (kings >>> square & 1) != 0;
+            int empty = ~(own | enemy);
+            for (int direction = 0; direction < 4; direction++) {
+                if (!isKing && isRedTurn != (direction == UP_LEFT || direction == UP_RIGHT)) continue;
+                count = addKill(isRedTurn, own, enemy, kings, empty, from, square, killed, isKing, isKinged,
+                        JUMPED[direction][square], LANDING[direction][square], moves, count);
+                if (isButterflyKillingEnabled()) count = addKill(isRedTurn, own, enemy, kings, empty, from, square,
+                        killed, isKing, isKinged, BUTTERFLY_JUMPED[direction][square], BUTTERFLY_LANDING[direction][square], moves, count);
+            }
+            return count;
+        }
+
+        /**
+         * Adds a single kill to the given array if it is possible, and then continues the chain of kills.
+         *
+         * @param isRedTurn Whether or not it is red's turn.
+         * @param own A mask of the pieces belonging to the player whose turn it is, after the kills made so far.
+         * @param enemy A mask of the pieces belonging to the other player, after the kills made so far.
+         * @param kings A mask of all the kings, after the kills made so far.
+         * @param empty A mask of all the empty squares, after the kills made so far.
+         * @param from The square that the selected piece started the move from.
+         * @param square The square that the selected piece is currently on.
+         * @param killed A mask of the squares killed so far.
+         * @param isKing Whether or not the selected piece is currently a king.
+         * @param isKinged Whether or not the selected piece has been kinged so far.
+         * @param jumped The square of the piece that would be killed, or -1 if there is none.
+         * @param landing The square that the selected piece would land on.
+         * @param moves The array to add any new packed moves to.
+         * @param count The number of moves already in the array.
+         * @return The number of moves in the array after adding the new ones.
+         */
+        private static int addKill(boolean isRedTurn, int own, int enemy, int kings, int empty, int from, int square,
+                                   int killed, boolean isKing, boolean isKinged, int jumped, int landing, long[] moves, int count) {
+            if (jumped == -1 || (enemy >>> jumped & 1) == 0 || (empty >>> landing & 1) == 0) return count;
+            boolean isKingedNow = !isKing && ((isRedTurn ? ROW_0 : ROW_7) >>> landing & 1) != 0;
+            int newKilled = killed | 1 << jumped;
+            moves[count++] = PackedMove.create(from, landing, newKilled, isKinged || isKingedNow);
+            if (!isKingedNow || isKillAfterKingingEnabled()) {
+                int newKings = kings & ~(1 << square) & ~(1 << jumped) | (isKing || isKingedNow ? 1 << landing : 0);
+                count = addKills(isRedTurn, own ^ (1 << square) ^ (1 << landing), enemy & ~(1 << jumped), newKings,
+                        from, landing, newKilled, isKinged || isKingedNow, moves, count);
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.gmail.amaarquadri.checkers.engine.tools;
+
+import com.gmail.amaarquadri.checkers.engine.GameRules;
+import com.gmail.amaarquadri.checkers.engine.MoveGenerator;
+import com.gmail.amaarquadri.checkers.engine.PackedMove;
+import com.gmail.amaarquadri.checkers.engine.Position;
+import com.gmail.amaarquadri.checkers.engine.SearchOptions;
+import com.gmail.amaarquadri.checkers.engine.Searcher;
+import com.gmail.amaarquadri.checkers.engine.TranspositionTable;
+
+import java.util.ArrayList;
+
+/**
+ * Command line benchmark that compares the size of the tree searched by the Searcher against the single bound minimax
+ * search that it replaced. Both search the same positions to the same depth with an empty TranspositionTable of the same
+ * size, and both must find the same value, so the only difference is how much of the tree they need to visit.
+ * The selective search techniques can change the value, so the Searcher runs with SearchOptions.NONE.
+ * Usage: SearchBenchmark [minDepth] [maxDepth] [positions] [rulesIndex]
+ */
+public final class SearchBenchmark {
+    /**
+     * Prevents SearchBenchmark initialization.
+     */
+    private SearchBenchmark() {
+        throw new AssertionError();
+    }
+
+
+    /**
+     * The size of the TranspositionTables, in megabytes.
+     */
+    private static final int TABLE_MEGABYTES = 16;
+
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args The optional minimum and maximum depth, number of positions, and index of the GameRules.
+     */
+    public static void main(String[] args) {
+        int minDepth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int maxDepth = args.length > 1 ? Integer.parseInt(args[1]) : 7;
+        int positionCount = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        GameRules rules = GameRules.fromIndex(args.length > 3 ? Integer.parseInt(args[3]) : 0);
+        ArrayList<String> positions = BenchmarkPositions.create(rules, positionCount, 40);
+
+        TranspositionTable legacyTable = new TranspositionTable(TABLE_MEGABYTES), table = new TranspositionTable(TABLE_MEGABYTES);
+        LegacySearcher legacySearcher = new LegacySearcher(rules, legacyTable);
+        Searcher searcher = new Searcher(rules, table, SearchOptions.NONE);
+
+        System.out.println(rules + ", " + positionCount + " positions");
+        System.out.println("depth\tlegacy nodes\tpvs nodes\tratio\tlegacy ms\tpvs ms");
+        for (int depth = minDepth; depth <= maxDepth; depth++) {
+            long legacyNodes = 0, nodes = 0, legacyTime = 0, time = 0;
+            for (String serializedBoard : positions) {
+                Position position = Position.fromSerialization(serializedBoard);
+                boolean isRedTurn = Position.isRedTurn(serializedBoard);
+
+                legacyTable.clear();
+                long startTime = System.nanoTime();
+                int legacyValue = legacySearcher.getValue(position, isRedTurn, depth);
+                legacyTime += System.nanoTime() - startTime;
+                legacyNodes += legacySearcher.nodes;
+
+                table.clear();
+                startTime = System.nanoTime();
+                int value = searcher.getValue(position, isRedTurn, depth);
+                time += System.nanoTime() - startTime;
+                nodes += searcher.getStatistics().getNodes();
+
+                if (legacyValue != value) throw new IllegalStateException("The searches disagree on " + serializedBoard +
+                        " at depth " + depth + ": " + legacyValue + " != " + value);
+            }
+            System.out.println(depth + "\t" + legacyNodes + "\t" + nodes + "\t" + String.format("%.2f", (double) nodes / legacyNodes) +
+                    "\t" + legacyTime / 1000000 + "\t" + time / 1000000);
+        }
+    }
+
+
+    /**
+     * The search as it was before the principal variation search, kept only as the baseline for this benchmark.
+     * It keeps separate branches for red and white, and only passes a single bound down the tree.
+     * Its leaves are resolved by a plain minimax over kills, so that it finds the same values as the quiescence search.
+     */
+    private static final class LegacySearcher {
+        /**
+         * The Position being searched.
+         */
+        private final Position position = new Position(0, 0, 0);
+
+        /**
+         * The MoveGenerator for the rules of the game being searched.
+         */
+        private final MoveGenerator moveGenerator;
+
+        /**
+         * A preallocated array of packed moves for every layer of the tree search, indexed by the depth left to search.
+         */
+        private final long[][] moveStack = new long[Searcher.MAX_DEPTH][MoveGenerator.MAX_MOVES];
+
+        /**
+         * A preallocated array of packed kills for every layer of the search at the leaves, indexed by the number of kills made.
+         */
+        private final long[][] killStack = new long[24][MoveGenerator.MAX_MOVES];
+
+        /**
+         * The table of previous search results.
+         */
+        private final TranspositionTable transpositionTable;
+
+        /**
+         * A reusable array that TranspositionTable entries are read into.
+         */
+        private final long[] hashEntry = new long[2];
+
+        /**
+         * The number of Positions visited by the last search.
+         */
+        private long nodes;
+
+
+        /**
+         * Creates a new LegacySearcher.
+         *
+         * @param rules The rules of the game that will be searched.
+         * @param transpositionTable The table to remember results in.
+         */
+        private LegacySearcher(GameRules rules, TranspositionTable transpositionTable) {
+            moveGenerator = MoveGenerator.forRules(rules);
+            this.transpositionTable = transpositionTable;
+        }
+
+        /**
+         * @param root The Position to find the value of. It is not modified.
+         * @param isRedTurn Whether or not it is red's turn on the given Position.
+         * @param depth The number of layers to search.
+         * @return The value of the given Position from red's perspective, with wins and losses scored like the Searcher.
+         */
+        private int getValue(Position root, boolean isRedTurn, int depth) {
+            position.set(root);
+            nodes = 0;
+            int value = getValue(isRedTurn, isRedTurn ? Integer.MAX_VALUE : Integer.MIN_VALUE, depth);
+            if (value == Integer.MAX_VALUE) return Searcher.WIN;
+            if (value == Integer.MIN_VALUE) return -Searcher.WIN;
+            return value;
+        }
+
+        /**
+         * @param isRedTurn Whether or not it is red's turn at the current point in the tree search.
+         * @param valueToBeat The most optimal value found so far in the layer above.
+         * @param depth The number of layers left to search.
+         * @return The value of the current Position from red's perspective.
+         */
+        private int getValue(boolean isRedTurn, int valueToBeat, int depth) {
+            nodes++;
+            if (depth == 0) return getQuietValue(isRedTurn, 0);
+
+            long key = position.getKey(isRedTurn);
+            if (transpositionTable.probe(key, hashEntry)) {
+                long data = hashEntry[0];
+                if (TranspositionTable.getDepth(data) >= depth) {
+                    int score = TranspositionTable.getScore(data), bound = TranspositionTable.getBound(data);
+                    if (bound == TranspositionTable.EXACT || (isRedTurn ? bound == TranspositionTable.LOWER_BOUND && score >= valueToBeat
+                            : bound == TranspositionTable.UPPER_BOUND && score <= valueToBeat)) return score;
+                }
+            }
+
+            int value = isRedTurn ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+            int bound = TranspositionTable.EXACT;
+            long bestMove = PackedMove.NONE;
+            long[] moves = moveStack[depth];
+            int moveCount = moveGenerator.generateMoves(isRedTurn, position, moves);
+            for (int i = 0; i < moveCount; i++) {
+                int killedKings = position.make(moves[i]);
+                int mValue = getValue(!isRedTurn, value, depth - 1);
+                position.unmake(moves[i], killedKings);
+                if (isRedTurn ? mValue > value : mValue < value) {
+                    value = mValue;
+                    bestMove = moves[i];
+                    if (isRedTurn ? value >= valueToBeat : value <= valueToBeat) {
+                        bound = isRedTurn ? TranspositionTable.LOWER_BOUND : TranspositionTable.UPPER_BOUND;
+                        break;
+                    }
+                }
+            }
+            transpositionTable.store(key, depth, bound, value, bestMove);
+            return value;
+        }
+
+        /**
+         * @param isRedTurn Whether or not it is red's turn at the current point in the tree search.
+         * @param killDepth The number of kills made since the leaf.
+         * @return The value of the current Position from red's perspective, where the player whose turn it is can either
+         * take the static evaluation or make a kill.
+         */
+        private int getQuietValue(boolean isRedTurn, int killDepth) {
+            nodes++;
+            int value = position.getRawValue();
+            long[] moves = killStack[killDepth];
+            int moveCount = moveGenerator.generateKills(isRedTurn, position, moves);
+            for (int i = 0; i < moveCount; i++) {
+                int killedKings = position.make(moves[i]);
+                int mValue = getQuietValue(!isRedTurn, killDepth + 1);
+                position.unmake(moves[i], killedKings);
+                if (isRedTurn ? mValue > value : mValue < value) value = mValue;
+            }
+            return value;
+        }
+    }
+}
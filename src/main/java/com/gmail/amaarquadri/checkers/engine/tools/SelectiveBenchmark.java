@@ -0,0 +1,84 @@
+package com.gmail.amaarquadri.checkers.engine.tools;
+
+import com.gmail.amaarquadri.checkers.engine.GameRules;
+import com.gmail.amaarquadri.checkers.engine.Position;
+import com.gmail.amaarquadri.checkers.engine.SearchLimits;
+import com.gmail.amaarquadri.checkers.engine.SearchOptions;
+import com.gmail.amaarquadri.checkers.engine.SearchStatistics;
+import com.gmail.amaarquadri.checkers.engine.Searcher;
+import com.gmail.amaarquadri.checkers.engine.TranspositionTable;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Command line benchmark that measures each of the selective search techniques on its own and together.
+ * Every combination of SearchOptions gets the same fixed amount of time on the same positions, with an empty
+ * TranspositionTable. The average depth reached and the average effective branching factor are printed, along with how
+ * often the picked move agrees with the search that uses no selective techniques.
+ * Usage: SelectiveBenchmark [timeMillis] [positions] [rulesIndex]
+ */
+public final class SelectiveBenchmark {
+    /**
+     * Prevents SelectiveBenchmark initialization.
+     */
+    private SelectiveBenchmark() {
+        throw new AssertionError();
+    }
+
+
+    /**
+     * The size of the TranspositionTable, in megabytes.
+     */
+    private static final int TABLE_MEGABYTES = 16;
+
+    /**
+     * Every combination of SearchOptions that is measured. The first one is the baseline.
+     */
+    private static final SearchOptions[] OPTIONS = {SearchOptions.NONE, new SearchOptions(true, false),
+            new SearchOptions(false, true), SearchOptions.DEFAULT};
+
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args The optional time per position in milliseconds, number of positions, and index of the GameRules.
+     */
+    public static void main(String[] args) {
+        long timeMillis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        int positionCount = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        GameRules rules = GameRules.fromIndex(args.length > 2 ? Integer.parseInt(args[2]) : 0);
+        ArrayList<String> positions = BenchmarkPositions.create(rules, positionCount, 40);
+        SearchLimits limits = new SearchLimits(Searcher.MAX_DEPTH - 2, timeMillis);
+        TranspositionTable table = new TranspositionTable(TABLE_MEGABYTES);
+
+        System.out.println(rules + ", " + positionCount + " positions, " + timeMillis + "ms each");
+        System.out.println("options\tdepth\tbranching factor\tnodes/s\tsame move");
+        long[] baselineMoves = new long[positionCount];
+        for (SearchOptions options : OPTIONS) {
+            Searcher searcher = new Searcher(rules, table, options);
+            double depth = 0, branchingFactor = 0;
+            long nodes = 0, time = 0;
+            int sameMoves = 0;
+            for (int n = 0; n < positionCount; n++) {
+                String serializedBoard = positions.get(n);
+                table.clear();
+                long startTime = System.nanoTime();
+                //a fixed seed makes every combination break ties the same way
+                long move = searcher.pickMove(Position.fromSerialization(serializedBoard), Position.isRedTurn(serializedBoard),
+                        limits, new Random(0));
+                time += System.nanoTime() - startTime;
+
+                SearchStatistics statistics = searcher.getStatistics();
+                depth += statistics.getDepth();
+                branchingFactor += statistics.getEffectiveBranchingFactor();
+                nodes += statistics.getNodes();
+                if (options == OPTIONS[0]) baselineMoves[n] = move;
+                if (move == baselineMoves[n]) sameMoves++;
+            }
+            System.out.println(options + "\t" + String.format("%.2f", depth / positionCount) + "\t" +
+                    String.format("%.2f", branchingFactor / positionCount) + "\t" + nodes * 1000000000 / Math.max(time, 1) +
+                    "\t" + sameMoves + "/" + positionCount);
+        }
+    }
+}
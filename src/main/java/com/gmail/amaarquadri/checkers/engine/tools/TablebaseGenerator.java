@@ -0,0 +1,291 @@
+package com.gmail.amaarquadri.checkers.engine.tools;
+
+import com.gmail.amaarquadri.checkers.engine.GameRules;
+import com.gmail.amaarquadri.checkers.engine.Material;
+import com.gmail.amaarquadri.checkers.engine.MoveGenerator;
+import com.gmail.amaarquadri.checkers.engine.Position;
+import com.gmail.amaarquadri.checkers.engine.Tablebase;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Command line tool that works out the exact result of every Position with up to the given number of pieces, and writes
+ * the files that Tablebase reads.
+ * The Materials are worked out from the fewest pieces up, so that every kill and kinging leads to a table that is
+ * already finished. Each Material is worked out together with its flip(), since a plain move always leads from one to the other.
+ * The tables are filled in one pass at a time: on pass n, a Position is won in n moves if one of its moves leads to a
+ * Position that is lost in n - 1 moves, and it is lost in n moves if all of its moves lead to Positions that are won in
+ * at most n - 1 moves. Positions that are still unknown once the passes stop changing anything are draws.
+ * Every pass is split across the given number of Threads. All of the tables are kept in memory until the end.
+ * Usage: TablebaseGenerator maxPieces rulesIndex [directory] [threads]
+ */
+public final class TablebaseGenerator {
+    /**
+     * The number of parts that each pass over a table is split into for every Thread, so that the Threads finish at about
+     * the same time even though some parts of a table take longer than others.
+     */
+    private static final int PARTS_PER_THREAD = 8;
+
+
+    /**
+     * Runs the generator.
+     *
+     * @param args The maximum number of pieces, the index of the GameRules (see GameRules.getIndex()),
+     *             and optionally the directory to write the files to and the number of Threads.
+     * @throws IOException If a file cannot be written.
+     * @throws InterruptedException If the Thread is interrupted while waiting for a pass to finish.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Usage: TablebaseGenerator maxPieces rulesIndex [directory] [threads]");
+            System.exit(1);
+        }
+        int maxPieces = Integer.parseInt(args[0]);
+        GameRules rules = GameRules.fromIndex(Integer.parseInt(args[1]));
+        File directory = new File(args.length > 2 ? args[2] : ".");
+        int threadCount = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        if (!directory.isDirectory() && !directory.mkdirs()) throw new IOException("Cannot create " + directory);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            new TablebaseGenerator(rules, executor, threadCount).generateAll(maxPieces, directory);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+
+    //INSTANCE VARIABLES
+
+
+    /**
+     * The rules of the game.
+     */
+    private final GameRules rules;
+
+    /**
+     * Generates the moves of every Position.
+     */
+    private final MoveGenerator moveGenerator;
+
+    /**
+     * Runs the parts of every pass.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The number of Threads of the executor.
+     */
+    private final int threadCount;
+
+    /**
+     * The Material of every table that has been started, indexed by Material.getKey().
+     */
+    private final Material[] materials;
+
+    /**
+     * The results of every table that has been started, in the same format as Tablebase.probe(), indexed by Material.getKey().
+     */
+    private final byte[][] results;
+
+    /**
+     * The largest number of moves until the game is over in any finished table.
+     */
+    private int maxFinishedDistance;
+
+
+    /**
+     * Creates a new TablebaseGenerator.
+     *
+     * @param rules The rules of the game.
+     * @param executor Runs the parts of every pass.
+     * @param threadCount The number of Threads of the executor.
+     */
+    private TablebaseGenerator(GameRules rules, ExecutorService executor, int threadCount) {
+        this.rules = rules;
+        moveGenerator = MoveGenerator.forRules(rules);
+        this.executor = executor;
+        this.threadCount = threadCount;
+        materials = new Material[Material.KEY_COUNT];
+        results = new byte[Material.KEY_COUNT][];
+        maxFinishedDistance = 0;
+    }
+
+    /**
+     * Works out and writes every table with up to the given number of pieces.
+     *
+     * @param maxPieces The maximum number of pieces on the board, counting both players.
+     * @param directory The directory to write the files to.
+     * @throws IOException If a file cannot be written.
+     * @throws InterruptedException If the Thread is interrupted while waiting for a pass to finish.
+     */
+    private void generateAll(int maxPieces, File directory) throws IOException, InterruptedException {
+        System.out.println("material\tpositions\twins\tlosses\tdraws\tmax distance\tbytes\ttime");
+        for (Material material : Material.upTo(maxPieces)) {
+            //a Material that was already worked out with its flip() is skipped
+            if (results[material.getKey()] != null) continue;
+            Material flipped = material.flip();
+            long startTime = System.nanoTime();
+            generate(flipped.getKey() == material.getKey() ? new Material[]{material} : new Material[]{material, flipped});
+            long timeElapsed = (System.nanoTime() - startTime) / 1000000;
+            write(material, directory, timeElapsed);
+            if (flipped.getKey() != material.getKey()) write(flipped, directory, timeElapsed);
+        }
+    }
+
+    /**
+     * Works out the tables of a Material and its flip(). Every table that they can reach by killing or kinging must
+     * already be finished.
+     *
+     * @param group The Material and its flip(), or just the Material if it is the same as its flip().
+     * @throws InterruptedException If the Thread is interrupted while waiting for a pass to finish.
+     */
+    private void generate(Material[] group) throws InterruptedException {
+        for (Material material : group) {
+            materials[material.getKey()] = material;
+            results[material.getKey()] = new byte[material.getSize()];
+        }
+        //a pass can still find new results after a pass that found none, until the results of the finished tables run out
+        int pass = 0;
+        while (runPass(group, pass) > 0 || pass <= maxFinishedDistance) pass++;
+        for (Material material : group) for (byte result : results[material.getKey()])
+            maxFinishedDistance = Math.max(maxFinishedDistance, (result & 0xFF) - 1);
+    }
+
+    /**
+     * Runs a single pass over the tables of a group, split across every Thread.
+     *
+     * @param group The Materials whose tables are being worked out.
+     * @param pass The number of the pass, which is the number of moves until the game is over for every result it finds.
+     * @return The number of results that were found.
+     * @throws InterruptedException If the Thread is interrupted while waiting for the pass to finish.
+     */
+    private long runPass(Material[] group, final int pass) throws InterruptedException {
+        List<Callable<Long>> parts = new ArrayList<>();
+        for (final Material material : group) {
+            int partSize = Math.max(1, material.getSize() / (threadCount * PARTS_PER_THREAD));
+            for (int start = 0; start < material.getSize(); start += partSize) {
+                final int partStart = start, partEnd = (int) Math.min((long) start + partSize, material.getSize());
+                parts.add(new Callable<Long>() {
+                    @Override
+                    public Long call() {
+                        return runPass(material, pass, partStart, partEnd);
+                    }
+                });
+            }
+        }
+
+        long found = 0;
+        for (Future<Long> part : executor.invokeAll(parts)) {
+            try {
+                found += part.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("A part of pass " + pass + " failed", e.getCause());
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Runs a single pass over part of a table.
+     * Other Threads can write results into the same tables at the same time, but only results of this pass,
+     * which are never used until the next pass. So the order that the Positions are visited in never changes the results.
+     *
+     * @param material The Material of the table.
+     * @param pass The number of the pass.
+     * @param start The first index to visit.
+     * @param end The index after the last one to visit.
+     * @return The number of results that were found.
+     */
+    private long runPass(Material material, int pass, int start, int end) {
+        byte[] table = results[material.getKey()];
+        long[] moves = new long[MoveGenerator.MAX_MOVES];
+        long found = 0;
+        for (int index = start; index < end; index++) {
+            if (table[index] != 0) continue;
+            Position position = material.getPosition(index);
+            //Positions that can never happen in a game are left as draws, since they are never looked up
+            if (position == null) continue;
+            int moveCount = moveGenerator.generateMoves(true, position, moves);
+            //the first pass finds the Positions where the player to move has already lost, because they cannot move
+            if (pass == 0) {
+                if (moveCount == 0) {
+                    table[index] = 1;
+                    found++;
+                }
+                continue;
+            }
+
+            boolean isWon = false, isLost = true;
+            for (int i = 0; i < moveCount; i++) {
+                int killedKings = position.make(moves[i]);
+                int result = getResultAfterMove(position);
+                position.unmake(moves[i], killedKings);
+                //results found in this pass or not at all yet stop the Position from being lost, but nothing more
+                if (result == Tablebase.DRAW || Tablebase.getDistance(result) >= pass) isLost = false;
+                else if (!Tablebase.isWin(result)) {
+                    isWon = true;
+                    break;
+                }
+            }
+            if (isWon || isLost) {
+                if (pass > Tablebase.MAX_DISTANCE)
+                    throw new IllegalStateException(material + " has a game that lasts longer than " + Tablebase.MAX_DISTANCE + " moves");
+                table[index] = (byte) (pass + 1);
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @param position A Position right after red made a move, with white to move.
+     * @return The result of the Position from white's perspective, in the same format as Tablebase.probe().
+     */
+    private int getResultAfterMove(Position position) {
+        //the tables only hold Positions with red to move, so the Position is flipped
+        int red = Integer.reverse(position.getWhite()), white = Integer.reverse(position.getRed());
+        int kings = Integer.reverse(position.getKings());
+        //a player without any pieces left cannot move, so they have lost
+        if (red == 0) return 1;
+        int key = Material.getKey(red, white, kings);
+        if (results[key] == null) throw new IllegalStateException("A move leads to a table that has not been started");
+        return results[key][materials[key].getIndex(red, white, kings)] & 0xFF;
+    }
+
+    /**
+     * Writes a finished table and prints a summary of it.
+     *
+     * @param material The Material of the table.
+     * @param directory The directory to write the file to.
+     * @param timeElapsed How long the table took, in milliseconds.
+     * @throws IOException If the file cannot be written.
+     */
+    private void write(Material material, File directory, long timeElapsed) throws IOException {
+        byte[] table = results[material.getKey()];
+        long wins = 0, losses = 0, draws = 0;
+        int maxDistance = 0;
+        for (byte value : table) {
+            int result = value & 0xFF;
+            if (result == Tablebase.DRAW) draws++;
+            else {
+                if (Tablebase.isWin(result)) wins++;
+                else losses++;
+                maxDistance = Math.max(maxDistance, Tablebase.getDistance(result));
+            }
+        }
+        File file = new File(directory, Tablebase.getFileName(rules, material));
+        Tablebase.write(file, rules, material, table);
+        //draws include the Positions that can never happen in a game
+        System.out.println(material + "\t" + table.length + "\t" + wins + "\t" + losses + "\t" + draws + "\t" + maxDistance +
+                "\t" + file.length() + "\t" + timeElapsed + "ms");
+    }
+}
@@ -0,0 +1,504 @@
+package com.gmail.amaarquadri.checkers.engine.tools;
+
+import com.gmail.amaarquadri.checkers.engine.Evaluator;
+import com.gmail.amaarquadri.checkers.engine.GameRules;
+import com.gmail.amaarquadri.checkers.engine.MaterialEvaluator;
+import com.gmail.amaarquadri.checkers.engine.MoveGenerator;
+import com.gmail.amaarquadri.checkers.engine.PackedMove;
+import com.gmail.amaarquadri.checkers.engine.PatternEvaluator;
+import com.gmail.amaarquadri.checkers.engine.Position;
+import com.gmail.amaarquadri.checkers.engine.SearchLimits;
+import com.gmail.amaarquadri.checkers.engine.SearchOptions;
+import com.gmail.amaarquadri.checkers.engine.Searcher;
+import com.gmail.amaarquadri.checkers.engine.TranspositionTable;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Command line tool that plays games between two engine configurations to find out which one is stronger.
+ * Every opening (a serialized board, one per line of the openings file) is played twice, once with each configuration
+ * starting as red, so that an unbalanced opening favours both of them equally.
+ * Each Thread plays its own games from start to finish with its own Searchers, taking the number of the next game to play
+ * from a shared counter, so a slow game never holds up the others.
+ * <p>
+ * After every game the Elo difference of the first configuration over the second is worked out with a 95% confidence
+ * interval, along with the log likelihood ratio of a sequential probability ratio test (SPRT) between the hypotheses that
+ * the difference is elo0 and that it is elo1. The tournament stops as soon as the test accepts either hypothesis
+ * (with 5% error rates), or once all the games have been played.
+ * The app has no draw rule, so a game is a draw when a Position occurs for the third time or after MAX_PLIES plies.
+ * <p>
+ * A configuration is a comma separated list of key=value pairs: depth (the maximum depth), ms (the time per move),
+ * weights (a file written by EvaluationTuner, or "material" for the MaterialEvaluator), lmr and multicut ("on" or "off"),
+ * tt (the TranspositionTable size in megabytes) and name. For example: depth=12,ms=200,weights=weights.bin,name=tuned
+ * Usage: Tournament rulesIndex games configA configB [openingsFile|-] [pdnFile|-] [threads] [elo0] [elo1]
+ */
+public final class Tournament {
+    //STATIC MEMBERS
+
+
+    /**
+     * The number of plies after which a game is a draw.
+     */
+    private static final int MAX_PLIES = 300;
+
+    /**
+     * The chance of accepting elo1 when elo0 is true, and the other way around.
+     */
+    private static final double SPRT_ERROR = 0.05;
+
+    /**
+     * Runs the tournament.
+     *
+     * @param args The index of the GameRules (see GameRules.getIndex()), the maximum number of games, the two
+     *             configurations, and optionally the openings file and PDN file (or - for none), the number of Threads,
+     *             and the Elo differences of the two SPRT hypotheses.
+     * @throws IOException If a file cannot be read or written.
+     * @throws InterruptedException If the Thread is interrupted while waiting for the games to finish.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 4) {
+            System.err.println("Usage: Tournament rulesIndex games configA configB [openingsFile|-] [pdnFile|-] [threads] [elo0] [elo1]");
+            System.exit(1);
+        }
+        GameRules rules = GameRules.fromIndex(Integer.parseInt(args[0]));
+        int games = Integer.parseInt(args[1]);
+        Player[] players = {new Player(args[2], "A"), new Player(args[3], "B")};
+        List<String> openings = new ArrayList<>();
+        if (args.length > 4 && !args[4].equals("-")) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(args[4]), "UTF-8"));
+            try {
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    line = line.trim();
+                    if (line.isEmpty()) continue;
+                    //this throws if the line is not a serialized board
+                    Position.fromSerialization(line);
+                    openings.add(line);
+                }
+            } finally {
+                reader.close();
+            }
+        }
+        if (openings.isEmpty()) openings.add(Position.INITIAL_SERIALIZATION);
+        PrintWriter pdn = args.length > 5 && !args[5].equals("-") ?
+                new PrintWriter(new OutputStreamWriter(new FileOutputStream(args[5]), "UTF-8")) : null;
+        int threadCount = args.length > 6 ? Integer.parseInt(args[6]) : Runtime.getRuntime().availableProcessors();
+        double elo0 = args.length > 7 ? Double.parseDouble(args[7]) : 0;
+        double elo1 = args.length > 8 ? Double.parseDouble(args[8]) : 5;
+
+        System.out.println(players[0] + " vs " + players[1] + ", " + rules + ", " + openings.size() + " openings, " +
+                threadCount + " threads, SPRT elo0 = " + elo0 + " elo1 = " + elo1);
+        Tournament tournament = new Tournament(rules, games, players, openings, pdn, elo0, elo1);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            tournament.run(executor, threadCount);
+        } finally {
+            executor.shutdown();
+            if (pdn != null) pdn.close();
+        }
+        System.out.println("final: " + tournament.getSummary());
+    }
+
+    /**
+     * @param elo An Elo difference.
+     * @return The expected score of the stronger player, from 0 to 1.
+     */
+    private static double getExpectedScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    /**
+     * @param score An expected score, from 0 to 1 (not inclusive).
+     * @return The Elo difference that gives the score.
+     */
+    private static double getElo(double score) {
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    /**
+     * @param square The index of the bit that represents a square.
+     * @return The number of the square in PDN, where red (who moves first) starts on squares 1 to 12.
+     */
+    private static int getPdnSquare(int square) {
+        return 32 - (4 * Position.getJ(square) + Position.getI(square) / 2);
+    }
+
+    /**
+     * @param move A packed move.
+     * @return The move in PDN, like 9-14 or 14x23. Only the first and last squares of a multiple kill are given.
+     */
+    private static String getPdnMove(long move) {
+        return getPdnSquare(PackedMove.getFrom(move)) + (PackedMove.isKill(move) ? "x" : "-") + getPdnSquare(PackedMove.getTo(move));
+    }
+
+    /**
+     * @param position A Position.
+     * @param isRedTurn Whether or not it is red's turn on the given Position.
+     * @return The value of the PDN FEN tag of the Position, where red is black (since black moves first in PDN).
+     */
+    private static String getPdnFen(Position position, boolean isRedTurn) {
+        StringBuilder white = new StringBuilder(), black = new StringBuilder();
+        for (int number = 1; number <= 32; number++) for (int square = 0; square < 32; square++) {
+            if (getPdnSquare(square) != number) continue;
+            StringBuilder pieces = (position.getRed() >>> square & 1) != 0 ? black : (position.getWhite() >>> square & 1) != 0 ? white : null;
+            if (pieces == null) continue;
+            if (pieces.length() > 0) pieces.append(',');
+            if ((position.getKings() >>> square & 1) != 0) pieces.append('K');
+            pieces.append(number);
+        }
+        return (isRedTurn ? "B" : "W") + ":W" + white + ":B" + black;
+    }
+
+
+    //INSTANCE VARIABLES
+
+
+    /**
+     * The rules of every game.
+     */
+    private final GameRules rules;
+
+    /**
+     * The maximum number of games.
+     */
+    private final int games;
+
+    /**
+     * The two configurations. Results are from the perspective of the first one.
+     */
+    private final Player[] players;
+
+    /**
+     * The serialized boards that the games start from.
+     */
+    private final List<String> openings;
+
+    /**
+     * Where the games are written, or null to not write them. It is also the lock for writing to it.
+     */
+    private final PrintWriter pdn;
+
+    /**
+     * The Elo difference of the hypothesis that the first configuration is no better.
+     */
+    private final double elo0;
+
+    /**
+     * The Elo difference of the hypothesis that the first configuration is better.
+     */
+    private final double elo1;
+
+    /**
+     * The number of the next game to start.
+     */
+    private final AtomicInteger nextGame;
+
+    /**
+     * The number of games won, drawn and lost by the first configuration. They are guarded by this Tournament.
+     */
+    private int wins, draws, losses;
+
+    /**
+     * Whether or not the SPRT has accepted a hypothesis, so no more games should be started. It is guarded by this Tournament.
+     */
+    private boolean isFinished;
+
+
+    /**
+     * Creates a new Tournament.
+     *
+     * @param rules The rules of every game.
+     * @param games The maximum number of games.
+     * @param players The two configurations.
+     * @param openings The serialized boards that the games start from.
+     * @param pdn Where the games are written, or null to not write them.
+     * @param elo0 The Elo difference of the hypothesis that the first configuration is no better.
+     * @param elo1 The Elo difference of the hypothesis that the first configuration is better.
+     */
+    private Tournament(GameRules rules, int games, Player[] players, List<String> openings, PrintWriter pdn, double elo0, double elo1) {
+        this.rules = rules;
+        this.games = games;
+        this.players = players;
+        this.openings = openings;
+        this.pdn = pdn;
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+        nextGame = new AtomicInteger();
+        wins = draws = losses = 0;
+        isFinished = false;
+    }
+
+    /**
+     * Plays games on every Thread until they are all played or the SPRT accepts a hypothesis.
+     *
+     * @param executor Runs the Threads.
+     * @param threadCount The number of Threads.
+     * @throws InterruptedException If the Thread is interrupted while waiting for the games to finish.
+     */
+    private void run(ExecutorService executor, int threadCount) throws InterruptedException {
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int n = 0; n < threadCount; n++) workers.add(new Callable<Void>() {
+            @Override
+            public Void call() throws IOException {
+                //every Thread has its own Searchers, so the games never wait for each other
+                TranspositionTable[] tables = {players[0].createTable(), players[1].createTable()};
+                Searcher[] searchers = {players[0].createSearcher(rules, tables[0]), players[1].createSearcher(rules, tables[1])};
+                for (int game = nextGame.getAndIncrement(); game < games && !isFinished(); game = nextGame.getAndIncrement())
+                    playGame(game, searchers, tables);
+                return null;
+            }
+        });
+        for (Future<Void> result : executor.invokeAll(workers)) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("A game failed", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * @return Whether or not the SPRT has accepted a hypothesis.
+     */
+    private synchronized boolean isFinished() {
+        return isFinished;
+    }
+
+    /**
+     * Plays a single game and records its result.
+     *
+     * @param game The number of the game. Even games have the first configuration playing red.
+     * @param searchers The Searchers of the current Thread, in the same order as the players.
+     * @param tables The TranspositionTables of the Searchers, which are cleared so that every game is played the same way
+     *               no matter which games the Thread played before.
+     */
+    private void playGame(int game, Searcher[] searchers, TranspositionTable[] tables) {
+        String opening = openings.get(game / 2 % openings.size());
+        Position position = Position.fromSerialization(opening);
+        boolean isRedTurn = Position.isRedTurn(opening);
+        //the first configuration is red in even games
+        int redPlayer = game % 2;
+        MoveGenerator moveGenerator = MoveGenerator.forRules(rules);
+        long[] moves = new long[MoveGenerator.MAX_MOVES];
+        //the same seed for both games of an opening makes ties break the same way whoever plays which colour
+        Random random = new Random(game / 2);
+        for (TranspositionTable table : tables) table.clear();
+
+        StringBuilder moveText = new StringBuilder();
+        if (!isRedTurn) moveText.append("1...");
+        Map<Long, Integer> occurrences = new HashMap<>();
+        //1 if red wins, 0 if white wins, and 0.5 for a draw
+        double redScore = 0.5;
+        for (int ply = 0; ply < MAX_PLIES; ply++) {
+            long key = position.getKey(isRedTurn);
+            Integer count = occurrences.get(key);
+            if (count != null && count == 2) break;
+            occurrences.put(key, count == null ? 1 : count + 1);
+            if (moveGenerator.generateMoves(isRedTurn, position, moves) == 0) {
+                redScore = isRedTurn ? 0 : 1;
+                break;
+            }
+
+            Player player = players[isRedTurn ? redPlayer : 1 - redPlayer];
+            long move = searchers[isRedTurn ? redPlayer : 1 - redPlayer].pickMove(position, isRedTurn, player.limits, random);
+            if (isRedTurn) moveText.append(moveText.length() == 0 ? "" : " ").append(ply / 2 + 1).append('.');
+            moveText.append(' ').append(getPdnMove(move));
+            position.make(move);
+            isRedTurn = !isRedTurn;
+        }
+
+        String result = redScore == 1 ? "1-0" : redScore == 0 ? "0-1" : "1/2-1/2";
+        double score = redPlayer == 0 ? redScore : 1 - redScore;
+        String summary = record(score);
+        System.out.println("game " + game + " " + result + " (" + players[redPlayer].name + " red)\t" + summary);
+        if (pdn != null) synchronized (pdn) {
+            pdn.println("[Event \"" + players[0] + " vs " + players[1] + ", " + rules + "\"]");
+            pdn.println("[Round \"" + (game + 1) + "\"]");
+            pdn.println("[Black \"" + players[redPlayer].name + "\"]");
+            pdn.println("[White \"" + players[1 - redPlayer].name + "\"]");
+            pdn.println("[Result \"" + result + "\"]");
+            pdn.println("[FEN \"" + getPdnFen(Position.fromSerialization(opening), Position.isRedTurn(opening)) + "\"]");
+            pdn.println(moveText + " " + result);
+            pdn.println();
+            pdn.flush();
+        }
+    }
+
+    /**
+     * Records the result of a game, and finishes the tournament if the SPRT accepts a hypothesis.
+     *
+     * @param score The score of the first configuration: 1 for a win, 0.5 for a draw and 0 for a loss.
+     * @return The summary of the results so far.
+     */
+    private synchronized String record(double score) {
+        if (score == 1) wins++;
+        else if (score == 0) losses++;
+        else draws++;
+        double llr = getLogLikelihoodRatio();
+        if (llr >= Math.log((1 - SPRT_ERROR) / SPRT_ERROR) || llr <= Math.log(SPRT_ERROR / (1 - SPRT_ERROR))) isFinished = true;
+        return getSummary();
+    }
+
+    /**
+     * Works out the log likelihood ratio of elo1 over elo0 with the normal approximation of the trinomial (win, draw,
+     * loss) model, which is accurate for the small Elo differences that the SPRT is used for.
+     *
+     * @return The log likelihood ratio, or 0 if every game so far had the same result, since the variance is 0 then.
+     */
+    private synchronized double getLogLikelihoodRatio() {
+        int n = wins + draws + losses;
+        if (n == 0) return 0;
+        double score = (wins + 0.5 * draws) / n;
+        double variance = (wins * (1 - score) * (1 - score) + draws * (0.5 - score) * (0.5 - score) + losses * score * score) / n;
+        //a configuration that has not lost a game yet still has a variance as long as some of its games were draws
+        if (variance == 0) return 0;
+        double score0 = getExpectedScore(elo0), score1 = getExpectedScore(elo1);
+        return n * (score1 - score0) * (2 * score - score0 - score1) / (2 * variance);
+    }
+
+    /**
+     * @return The wins, draws and losses of the first configuration, its Elo difference with a 95% confidence interval,
+     *         and the state of the SPRT.
+     */
+    private synchronized String getSummary() {
+        int n = wins + draws + losses;
+        String text = "+" + wins + " =" + draws + " -" + losses;
+        if (n == 0) return text;
+        double score = (wins + 0.5 * draws) / n;
+        double variance = (wins * (1 - score) * (1 - score) + draws * (0.5 - score) * (0.5 - score) + losses * score * score) / n;
+        double margin = 1.96 * Math.sqrt(variance / n);
+        //the score is kept away from 0 and 1, where the Elo difference is infinite
+        double epsilon = 0.5 / n;
+        double elo = getElo(Math.min(Math.max(score, epsilon), 1 - epsilon));
+        double low = getElo(Math.min(Math.max(score - margin, epsilon), 1 - epsilon));
+        double high = getElo(Math.min(Math.max(score + margin, epsilon), 1 - epsilon));
+        double llr = getLogLikelihoodRatio();
+        String sprt = llr >= Math.log((1 - SPRT_ERROR) / SPRT_ERROR) ? "H1 accepted" :
+                llr <= Math.log(SPRT_ERROR / (1 - SPRT_ERROR)) ? "H0 accepted" : "running";
+        return text + "\telo " + String.format("%.1f [%.1f, %.1f]", elo, low, high) + "\tLLR " +
+                String.format("%.2f [%.2f, %.2f]", llr, Math.log(SPRT_ERROR / (1 - SPRT_ERROR)),
+                        Math.log((1 - SPRT_ERROR) / SPRT_ERROR)) + " " + sprt;
+    }
+
+
+    /**
+     * A single engine configuration.
+     */
+    private static final class Player {
+        /**
+         * The name that the Player is shown with.
+         */
+        private final String name;
+
+        /**
+         * The depth and time of every search.
+         */
+        private final SearchLimits limits;
+
+        /**
+         * Which of the selective search techniques to use.
+         */
+        private final SearchOptions options;
+
+        /**
+         * The weights file of the PatternEvaluator, or null for the MaterialEvaluator.
+         */
+        private final File weightsFile;
+
+        /**
+         * The size of the TranspositionTable of every Searcher, in megabytes.
+         */
+        private final int tableMegabytes;
+
+
+        /**
+         * Parses a configuration.
+         *
+         * @param config A comma separated list of key=value pairs, as described in the class documentation.
+         * @param defaultName The name to use if the configuration does not give one.
+         */
+        private Player(String config, String defaultName) {
+            String name = defaultName;
+            int depth = Searcher.MAX_DEPTH - 2;
+            long timeMillis = 100;
+            boolean isLateMoveReductionEnabled = SearchOptions.DEFAULT.isLateMoveReductionEnabled();
+            boolean isMultiCutEnabled = SearchOptions.DEFAULT.isMultiCutEnabled();
+            File weightsFile = null;
+            int tableMegabytes = 16;
+            for (String pair : config.split(",")) {
+                String[] parts = pair.split("=", 2);
+                if (parts.length != 2) throw new IllegalArgumentException("Expected key=value: " + pair);
+                switch (parts[0].trim()) {
+                    case "name": name = parts[1]; break;
+                    case "depth": depth = Integer.parseInt(parts[1]); break;
+                    case "ms": timeMillis = Long.parseLong(parts[1]); break;
+                    case "weights": weightsFile = parts[1].equals("material") ? null : new File(parts[1]); break;
+                    case "lmr": isLateMoveReductionEnabled = parseSwitch(parts[1]); break;
+                    case "multicut": isMultiCutEnabled = parseSwitch(parts[1]); break;
+                    case "tt": tableMegabytes = Integer.parseInt(parts[1]); break;
+                    default: throw new IllegalArgumentException("Unknown key: " + parts[0]);
+                }
+            }
+            this.name = name;
+            limits = new SearchLimits(depth, timeMillis);
+            options = new SearchOptions(isLateMoveReductionEnabled, isMultiCutEnabled);
+            this.weightsFile = weightsFile;
+            this.tableMegabytes = tableMegabytes;
+        }
+
+        /**
+         * @param value "on" or "off".
+         * @return Whether or not the value is "on".
+         */
+        private static boolean parseSwitch(String value) {
+            if (value.equals("on")) return true;
+            if (value.equals("off")) return false;
+            throw new IllegalArgumentException("Expected on or off: " + value);
+        }
+
+        /**
+         * @return A new TranspositionTable of the size of this configuration.
+         */
+        private TranspositionTable createTable() {
+            return new TranspositionTable(tableMegabytes);
+        }
+
+        /**
+         * Creates a Searcher with this configuration for a single Thread.
+         *
+         * @param rules The rules of the game.
+         * @param table The TranspositionTable of the Searcher, from createTable().
+         * @return The Searcher.
+         * @throws IOException If the weights file cannot be read.
+         */
+        private Searcher createSearcher(GameRules rules, TranspositionTable table) throws IOException {
+            Searcher searcher = new Searcher(rules, table, options);
+            Evaluator evaluator = weightsFile == null ? MaterialEvaluator.INSTANCE : PatternEvaluator.open(weightsFile);
+            searcher.setEvaluator(evaluator);
+            return searcher;
+        }
+
+        @Override
+        public String toString() {
+            return name + " (depth " + limits.getMaxDepth() + ", " + options + ", " +
+                    (weightsFile == null ? "material" : weightsFile.getName()) + ")";
+        }
+    }
+}
@@ -10,6 +10,9 @@ import android.view.View;
 import android.widget.LinearLayout;
 
 import com.gmail.amaarquadri.checkers.R;
+import com.gmail.amaarquadri.checkers.engine.GameRules;
+import com.gmail.amaarquadri.checkers.engine.MoveGenerator;
+import com.gmail.amaarquadri.checkers.engine.Position;
 import com.gmail.amaarquadri.checkers.utility.DataAccessor;
 import com.gmail.amaarquadri.checkers.utility.Utils;
 
@@ -29,7 +32,7 @@ public class CheckerBoard extends LinearLayout {
     /**
      * The String used to initialize a CheckerBoard to the starting state.
      */
-    public static final String INITIAL_SERIALIZED_BOARD = "TwErrwwErwErrwwErwErrwwErwErrwwEr";
+    public static final String INITIAL_SERIALIZED_BOARD = Position.INITIAL_SERIALIZATION;
 
     /**
      * This interface provides a listener for when the game finishes.
@@ -80,6 +83,12 @@ public class CheckerBoard extends LinearLayout {
      */
     protected boolean isRedTurn;
 
+    /**
+     * The rules of the game, which are read from the settings when this CheckerBoard is created.
+     * Changing the settings in the middle of a game therefore only takes effect in the next game.
+     */
+    protected final GameRules rules;
+
     /**
      * A SnackBar to offer the user the opportunity to end their turn as opposed to performing a double kill.
      * Since SnackBars cannot be reused, a new instance will be created every time it is needed.
@@ -111,6 +120,7 @@ public class CheckerBoard extends LinearLayout {
         gameFuture = new Stack<>();
         isLocked = false;
         isRedTurn = true;
+        rules = DataAccessor.getGameRules();
         endTurnSnackBar = null;
         gameFinishedListener = null;
 
@@ -304,7 +314,7 @@ public class CheckerBoard extends LinearLayout {
         }
 
         //if the piece is a king and kings are allowed to fly
-        if (selectedSquare.isKing() && DataAccessor.areFlyingKingsEnabled()) {
+        if (selectedSquare.isKing() && rules.areFlyingKingsEnabled()) {
             //check flying moves to the top left (only if the CheckerBoardSquare immediately to the top left is empty)
             //n represents the number of squares to the top left
             //n ranges from 2 to 7 because 1 was already accounted for above and 7 is the maximum possible (corner to corner)
@@ -414,7 +424,7 @@ public class CheckerBoard extends LinearLayout {
         CheckerBoardSquare selectedPiece = board[i][j];
 
         //prevents killing in the same move as getting a king, unless killAfterKingingEnabled is set to true
-        boolean canContinueMove = j != 2 || selectedPiece.isKing() || DataAccessor.isKillAfterKingingEnabled();
+        boolean canContinueMove = j != 2 || selectedPiece.isKing() || rules.isKillAfterKingingEnabled();
 
         //check kill to top left
         if (isValidAndEmpty(i - 2, j - 2) && areEnemies(selectedPiece, i - 1, j - 1))
@@ -425,7 +435,7 @@ public class CheckerBoard extends LinearLayout {
             board[i + 2][j - 2].setBlackCircleData(new BlackCircleData(i, j, i + 1, j - 1, canContinueMove));
 
         //check for butterfly kills if they are enabled
-        if (DataAccessor.isButterflyKillingEnabled()) {
+        if (rules.isButterflyKillingEnabled()) {
             //check upwards kill from left side of the board
             if (i == 1 && j > 1 && board[1][j - 2].isEmpty() && areEnemies(selectedPiece, 0, j - 1))
                 board[1][j - 2].setBlackCircleData(new BlackCircleData(i, j, 0, j - 1, canContinueMove));
@@ -447,7 +457,7 @@ public class CheckerBoard extends LinearLayout {
         CheckerBoardSquare selectedPiece = board[i][j];
 
         //prevents killing in the same move as getting a king, unless killAfterKingingEnabled is set to true
-        boolean canContinueMove = j != 5 || selectedPiece.isKing() || DataAccessor.isKillAfterKingingEnabled();
+        boolean canContinueMove = j != 5 || selectedPiece.isKing() || rules.isKillAfterKingingEnabled();
 
         //check kill to bottom left
         if (isValidAndEmpty(i - 2, j + 2) && areEnemies(selectedPiece, i - 1, j + 1))
@@ -458,7 +468,7 @@ public class CheckerBoard extends LinearLayout {
             board[i + 2][j + 2].setBlackCircleData(new BlackCircleData(i, j, i + 1, j + 1, canContinueMove));
 
         //check for butterfly kills if they are enabled
-        if (DataAccessor.isButterflyKillingEnabled()) {
+        if (rules.isButterflyKillingEnabled()) {
             //check downwards kill from left side of the board
             if (i == 1 && j < 6 && board[1][j + 2].isEmpty() && areEnemies(selectedPiece, 0, j + 1))
                 board[1][j + 2].setBlackCircleData(new BlackCircleData(i, j, 0, j + 1, canContinueMove));
@@ -501,8 +511,8 @@ public class CheckerBoard extends LinearLayout {
      * @return Whether or not the game has finished.
      */
     public final boolean isGameFinished() {
-        //all logical operations will be done at the level of chars (as opposed to manipulating the ui)
-        return !Utils.canMove(isRedTurn, Utils.toCharArray(board));
+        //all logical operations will be done on a Position (as opposed to manipulating the ui)
+        return !MoveGenerator.forRules(rules).canMove(isRedTurn, Position.fromCharArray(Utils.toCharArray(board)));
     }
 
     /**
@@ -520,6 +530,13 @@ public class CheckerBoard extends LinearLayout {
         setState(gameHistory.pop()); //the item popped from gameHistory will be pushed back to it in setState
     }
 
+    /**
+     * @return Whether or not there is at least 1 move that can be undone.
+     */
+    public final boolean canUndo() {
+        return gameHistory.size() > 1;
+    }
+
     /**
      * @return Whether or not there are at least 2 moves that can be undone.
      */
@@ -593,6 +610,17 @@ public class CheckerBoard extends LinearLayout {
         return new String(result);
     }
 
+    /**
+     * Returns the 64-bit Zobrist key of the current state of this CheckerBoard, which includes whose turn it is.
+     * This is the same key that the AI uses for the equivalent Position.
+     * No piece can be highlighted when this method is called (for example by using deselectEverything()).
+     *
+     * @return The key of the current state of this CheckerBoard.
+     */
+    public final long getKey() {
+        return Position.fromCharArray(Utils.toCharArray(board)).getKey(isRedTurn);
+    }
+
     /**
      * Returns a String serializing the current state of the CheckerBoard (identical result to getSerialization).
      * This makes use of the already present copy of the current state in gameHistory as opposed to recreating it.
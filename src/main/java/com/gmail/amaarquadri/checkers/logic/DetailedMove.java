@@ -1,5 +1,9 @@
 package com.gmail.amaarquadri.checkers.logic;
 
+import com.gmail.amaarquadri.checkers.engine.MoveGenerator;
+import com.gmail.amaarquadri.checkers.engine.PackedMove;
+import com.gmail.amaarquadri.checkers.engine.Position;
+
 import java.util.ArrayList;
 
 /**
@@ -37,6 +41,36 @@ public class DetailedMove extends Move {
         this.intermediateBoards = intermediateBoards;
     }
 
+    /**
+     * Creates the DetailedMove for a packed move, with an intermediate board after every kill except the last.
+     * This is only done for the move that the AI actually plays, since the tree search never needs any boards.
+     *
+     * @param moveGenerator The MoveGenerator that generated the move.
+     * @param isRedTurn Whether or not it is red's turn.
+     * @param board The board on which the move will be executed.
+     * @param move The packed move, which must have been generated on the given board.
+     * @return The resulting DetailedMove.
+     */
+    public static DetailedMove create(MoveGenerator moveGenerator, boolean isRedTurn, char[][] board, long move) {
+        Position position = Position.fromCharArray(board);
+        int[] path = moveGenerator.getPath(isRedTurn, position, move);
+        //simple and flying moves have no intermediate boards
+        if (path.length == 2) {
+            position.make(move);
+            return new DetailedMove(position.toCharArray());
+        }
+
+        //execute the kills one at a time, keeping a copy of the board after each one
+        ArrayList<char[][]> intermediateBoards = new ArrayList<>();
+        for (int n = 1; n < path.length; n++) {
+            int from = path[n - 1], to = path[n];
+            boolean isKinged = (position.getKings() >>> from & 1) == 0 && Position.getJ(to) == (isRedTurn ? 0 : 7);
+            position.make(PackedMove.create(from, to, 1 << moveGenerator.getJumped(from, to), isKinged));
+            if (n < path.length - 1) intermediateBoards.add(position.toCharArray());
+        }
+        return new DetailedMove(intermediateBoards, position.toCharArray());
+    }
+
     /**
      * @return An ArrayList<char[][]> containing all boards for this DetailedMove (including intermediateBoards and the finalBoard).
      */
@@ -2,15 +2,28 @@ package com.gmail.amaarquadri.checkers.logic;
 
 import android.content.Context;
 import android.support.annotation.UiThread;
-import android.support.annotation.WorkerThread;
 import android.util.AttributeSet;
 import android.util.Log;
 
+import com.gmail.amaarquadri.checkers.engine.EngineService;
+import com.gmail.amaarquadri.checkers.engine.MoveGenerator;
+import com.gmail.amaarquadri.checkers.engine.OpeningBook;
+import com.gmail.amaarquadri.checkers.engine.PackedMove;
+import com.gmail.amaarquadri.checkers.engine.PatternEvaluator;
+import com.gmail.amaarquadri.checkers.engine.Position;
+import com.gmail.amaarquadri.checkers.engine.SearchLimits;
+import com.gmail.amaarquadri.checkers.engine.SearchOptions;
+import com.gmail.amaarquadri.checkers.engine.SearchResult;
+import com.gmail.amaarquadri.checkers.engine.Searcher;
+import com.gmail.amaarquadri.checkers.engine.Tablebase;
+import com.gmail.amaarquadri.checkers.engine.TranspositionTable;
 import com.gmail.amaarquadri.checkers.ui.SinglePlayerGame;
 import com.gmail.amaarquadri.checkers.utility.DataAccessor;
 import com.gmail.amaarquadri.checkers.utility.Utils;
 
-import java.util.ArrayList;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Future;
 
 import static com.gmail.amaarquadri.checkers.ui.SinglePlayerGame.EASY;
 import static com.gmail.amaarquadri.checkers.ui.SinglePlayerGame.HARD;
@@ -22,15 +35,61 @@ import static com.gmail.amaarquadri.checkers.ui.SinglePlayerGame.MEDIUM;
  */
 public class SinglePlayerCheckerBoard extends CheckerBoard {
     public static final String TAG = "SinglePlayerCheckerBoar";
+
+    /**
+     * The directory inside the app's files directory that holds the endgame Tablebase files made by TablebaseGenerator.
+     */
+    private static final String TABLEBASE_DIRECTORY = "tablebases";
+
     /**
      * Whether or not the user is playing as red.
      */
     private final boolean isUserRed;
 
     /**
-     * The DifficultyLevel at which this AI will make moves.
+     * How deep and how long the AI searches, based on the DifficultyLevel.
+     */
+    private final SearchLimits searchLimits;
+
+    /**
+     * Runs every AI search on its worker Thread. It is kept for the whole game so that its TranspositionTable
+     * still holds the results of previous turns.
+     */
+    private final EngineService engineService;
+
+    /**
+     * The search for the AI's current move, from when it starts until the move has been shown, or null if there is none.
+     */
+    private Future<SearchResult> aiSearch;
+
+    /**
+     * Changes every time a search is cancelled, so that a search that finished just before it was cancelled
+     * can tell that its move must not be shown.
+     */
+    private int searchGeneration;
+
+    /**
+     * The search that the AI is running on the Position after the user's expected reply while the user is thinking,
+     * or null if there is none.
+     */
+    private Future<SearchResult> ponderSearch;
+
+    /**
+     * The Position after the AI's last move and the user's expected reply, with the AI to move,
+     * or null if the AI could not predict the reply.
      */
-    private int depth;
+    private Position ponderPosition;
+
+    /**
+     * The key of the CheckerBoard right after the AI's last move, so that pondering only starts if it was not undone.
+     */
+    private long ponderRootKey;
+
+    /**
+     * When the AI started its current move, in milliseconds.
+     * It is volatile because it is read when a search finishes, which may be on the EngineService's worker Thread.
+     */
+    private volatile long aiMoveStartTime;
 
     /**
      * A LoadingController used to control the visibility of the loading icon.
@@ -47,16 +106,46 @@ public class SinglePlayerCheckerBoard extends CheckerBoard {
     public SinglePlayerCheckerBoard(Context context, AttributeSet attrs) {
         super(context, attrs);
         isUserRed = DataAccessor.isUserRed();
-        //determine the depth of recursive tree search based on difficulty level
-        //depth is the number of moves into the future that will be taken into consideration
+        //determine the limits of the tree search based on difficulty level
+        //the search goes deeper one layer at a time until it reaches the maximum depth or runs out of time
+        //the time budgets keep the AI's thinking time predictable, while simple positions can still be searched deeply
         switch (DataAccessor.getDifficultyLevel()) {
-            //TODO: perhaps adjust values
-            case EASY: depth = 3; break;
-            case MEDIUM: depth = 5; break;
-            case HARD: depth = 6; break; //averaged 2.6 seconds
+            case EASY: searchLimits = new SearchLimits(3, 1000); break;
+            case MEDIUM: searchLimits = new SearchLimits(8, 1000); break;
+            case HARD: searchLimits = new SearchLimits(Searcher.MAX_DEPTH - 2, 2000); break;
             //should never happen
-            default: depth = 6;
+            default: searchLimits = new SearchLimits(Searcher.MAX_DEPTH - 2, 2000);
+        }
+        engineService = new EngineService(rules, new TranspositionTable(TranspositionTable.DEFAULT_MEGABYTES),
+                SearchOptions.DEFAULT.withThreadCount(SearchOptions.ROOT_SPLIT));
+        //the files are opened on the worker Thread, which only reads their headers since the rest is memory mapped
+        engineService.openTablebase(new File(context.getFilesDir(), TABLEBASE_DIRECTORY), Tablebase.DEFAULT_CACHE_BLOCKS,
+                new EngineService.OpenFailedListener() {
+                    @Override
+                    public void onOpenFailed(IOException e) {
+                        //the AI still works without the Tablebase, it just plays endgames less well
+                        Log.e(TAG, "Could not open the endgame tablebase", e);
+                    }
+                });
+        try {
+            engineService.setOpeningBook(OpeningBook.open(new File(context.getFilesDir(), OpeningBook.getFileName(rules)), rules));
+        } catch (IOException e) {
+            //the AI still works without the OpeningBook, it just takes longer to reply in the opening
+            Log.e(TAG, "Could not open the opening book", e);
+        }
+        //tuned weights are optional, since the MaterialEvaluator is used without them
+        File weightsFile = new File(context.getFilesDir(), PatternEvaluator.DEFAULT_FILE_NAME);
+        if (weightsFile.exists()) {
+            try {
+                engineService.setEvaluator(PatternEvaluator.open(weightsFile));
+            } catch (IOException e) {
+                Log.e(TAG, "Could not open the evaluation weights", e);
+            }
         }
+        aiSearch = null;
+        searchGeneration = 0;
+        ponderSearch = null;
+        ponderPosition = null;
         loadingController = null;
     }
 
@@ -74,76 +163,164 @@ public class SinglePlayerCheckerBoard extends CheckerBoard {
     @Override
     public void endTurn() {
         super.endTurn();
+        if (isGameFinished()) return;
         //make the next move via AI, if it is the AI's turn
-        if (!isGameFinished() && isUserRed != isRedTurn) makeAIMove();
+        //otherwise let the AI think about its next move while the user decides on theirs
+        if (isUserRed != isRedTurn) makeAIMove();
+        else startPondering();
     }
 
 
     /**
      * Makes the next move on the CheckerBoard using artificial intelligence.
+     * If the user played the reply that the AI was pondering on, the ponder search is used instead of starting again.
+     * Does nothing if the AI is already making a move.
      */
     @UiThread
     public void makeAIMove() {
+        if (aiSearch != null) return;
+
         //lock up the ui
         setLocked(true);
 
         //show the loading icon
         loadingController.setLoading(true);
 
+        aiMoveStartTime = System.currentTimeMillis();
+
+        //if the user played the expected reply, then the ponder search carries on with the depth it has already reached
+        if (ponderSearch != null && getKey() == ponderPosition.getKey(!isUserRed) && engineService.ponderHit(ponderSearch)) {
+            Log.d(TAG, "ponder hit");
+            aiSearch = ponderSearch;
+            ponderSearch = null;
+            ponderPosition = null;
+            return;
+        }
+        stopPondering();
+        ponderPosition = null;
+
         //must be done in UI Thread because it calls CheckerBoardState.getState
-        final char[][] board = Utils.toCharArray(this.board);
+        char[][] board = Utils.toCharArray(this.board);
+
+        //the search runs on the EngineService's worker Thread to prevent UI unresponsiveness
+        aiSearch = engineService.search(Position.fromCharArray(board), isRedTurn, searchLimits,
+                createSearchListener(board, isRedTurn));
+    }
 
-        //run the bulk of the computations in a worker Thread to prevent UI unresponsiveness
-        new Thread(new Runnable() {
-            @WorkerThread
+    /**
+     * Creates the SearchListener that shows the AI's move once a search for it finishes.
+     *
+     * @param board The board that is being searched.
+     * @param isRedTurn Whether or not it is red's turn on the board.
+     * @return A SearchListener that can be called on any Thread.
+     */
+    @UiThread
+    private EngineService.SearchListener createSearchListener(final char[][] board, final boolean isRedTurn) {
+        final int generation = searchGeneration;
+        return new EngineService.SearchListener() {
+            //called on the worker Thread, or on the UI Thread if a ponder search finished before the user moved
             @Override
-            public void run() {
-                long startTime = System.currentTimeMillis();
-                final DetailedMove move = pickMove(board);
-                long timeElapsed = System.currentTimeMillis() - startTime;
-                Log.d("SinglePlayerCheckerBoar", "timeElapsed = " + timeElapsed);
+            public void onSearchFinished(SearchResult result) {
+                Log.d(TAG, result.toString());
+                //only create the boards for the move that will actually be shown
+                final DetailedMove move = DetailedMove.create(MoveGenerator.forRules(rules), isRedTurn, board, result.getMove());
+
+                //work out the Position that the AI will ponder on if the user plays the expected reply
+                final Position afterMove = Position.fromCharArray(board);
+                afterMove.make(result.getMove());
+                final long rootKey = afterMove.getKey(!isRedTurn);
+                final Position afterReply;
+                if (result.getPonderMove() == PackedMove.NONE) afterReply = null;
+                else {
+                    afterReply = afterMove;
+                    afterReply.make(result.getPonderMove());
+                }
+
+                long timeElapsed = System.currentTimeMillis() - aiMoveStartTime;
+                Log.d(TAG, "timeElapsed = " + timeElapsed);
 
                 //ensure that at least 1 second passes before the Move is executed
                 postDelayed(new Runnable() {
+                    @UiThread
                     @Override
                     public void run() {
+                        //if the search was cancelled after it finished, then its move must not be shown
+                        if (generation != searchGeneration) return;
+                        ponderRootKey = rootKey;
+                        ponderPosition = afterReply;
                         executeMove(move);
                     }
                 }, 1000 - timeElapsed);
             }
-        }).start();
+        };
+    }
+
+    /**
+     * Starts searching the Position after the user's expected reply, if the AI could predict it and the CheckerBoard
+     * is still where the AI's last move left it. Does nothing if the AI is already pondering.
+     */
+    @UiThread
+    private void startPondering() {
+        if (ponderSearch != null || ponderPosition == null || getKey() != ponderRootKey) return;
+        ponderSearch = engineService.ponder(ponderPosition, !isUserRed, searchLimits,
+                createSearchListener(ponderPosition.toCharArray(), !isUserRed));
     }
 
     /**
-     * Determines the best possible move for the AI to make.
+     * Stops the AI from thinking on the user's time. The AI starts pondering again on resumeAIMove(),
+     * unless the CheckerBoard has changed since.
+     */
+    @UiThread
+    public void stopPondering() {
+        if (ponderSearch == null) return;
+        ponderSearch.cancel(true);
+        ponderSearch = null;
+    }
+
+    /**
+     * Stops the AI's search for its current move, if it is still searching.
+     * It is still the AI's turn afterwards, so the CheckerBoard stays locked until resumeAIMove() is called
+     * or the user's last move is undone.
      *
-     * @param board The board for which a move needs to be determined.
-     * @return The best possible Move.
-     */
-    @WorkerThread
-    private DetailedMove pickMove(char[][] board) {
-        //an ArrayList to hold the best Move(s) (multiple Moves will be present if they are all tied for best Move)
-        ArrayList<DetailedMove> bestMoves = new ArrayList<>();
-
-        //the value of the best Move(s) checked so far
-        //starts at the worst possible value (based on whether we are maximizing or minimizing)
-        int optimalValue = isRedTurn ? Integer.MIN_VALUE : Integer.MAX_VALUE;
-
-        //for every possible move
-        for (DetailedMove move : Utils.getAllPossibleDetailedMoves(isRedTurn, board)) {
-            int mValue = move.getValue(!isRedTurn, optimalValue, depth);
-            //if this Move is better than all the others, it replaces them all
-            if (isRedTurn ? mValue > optimalValue : mValue < optimalValue) {
-                optimalValue = mValue;
-                bestMoves.clear();
-                bestMoves.add(move);
-            }
-            //if this Move is just as good it gets added to the list
-            else if (mValue == optimalValue) bestMoves.add(move);
-        }
+     * @return Whether or not a search was stopped.
+     */
+    @UiThread
+    public boolean cancelAIMove() {
+        //once the search is done, its move is already being shown
+        if (aiSearch == null || !aiSearch.cancel(true)) return false;
+        aiSearch = null;
+        searchGeneration++;
+        loadingController.setLoading(false);
+        return true;
+    }
+
+    /**
+     * Starts the AI's move again if it is the AI's turn and the AI is not already making a move,
+     * such as after cancelAIMove(). If it is the user's turn, the AI starts pondering again instead.
+     */
+    @UiThread
+    public void resumeAIMove() {
+        if (aiSearch != null || isGameFinished()) return;
+        if (isUserRed != isRedTurn) makeAIMove();
+        else startPondering();
+    }
 
-        //pick one of the bestMoves randomly
-        return bestMoves.get((int) (Math.random() * bestMoves.size()));
+    /**
+     * @return Whether or not the AI is still searching for its current move.
+     */
+    @UiThread
+    public boolean isAIThinking() {
+        return aiSearch != null && !aiSearch.isDone();
+    }
+
+    /**
+     * Stops any search and ends the EngineService's worker Thread. No more AI moves can be made afterwards.
+     */
+    @UiThread
+    public void shutdownAI() {
+        cancelAIMove();
+        stopPondering();
+        engineService.shutdown();
     }
 
     /**
@@ -151,7 +328,7 @@ public class SinglePlayerCheckerBoard extends CheckerBoard {
      *
      * @param finalMove The Move which is to be executed.
      */
-    @WorkerThread
+    @UiThread
     private void executeMove(final DetailedMove finalMove) {
         //create and post all of the tasks to be done (showing intermediate and final boards) to the UI Thread
         //give each task incrementally longer delays (using count) so that they show in sequence
@@ -173,6 +350,7 @@ public class SinglePlayerCheckerBoard extends CheckerBoard {
             @UiThread
             @Override
             public void run() {
+                aiSearch = null;
                 loadingController.setLoading(false);
                 setLocked(false);
                 endTurn();
@@ -182,6 +182,13 @@ public class SinglePlayerGame extends Activity {
      * Undoes the last user move and the last AI move.
      */
     public void undo(View view) {
+        //if the AI is still thinking about its move, then stop it and only undo the user's move
+        if (checkerBoard.isAIThinking() && checkerBoard.canUndo() && checkerBoard.cancelAIMove()) {
+            checkerBoard.undo();
+            checkerBoard.setLocked(false);
+            return;
+        }
+
         //if the checkerBoard is locked, then show a Toast instead
         if (checkerBoard.isLocked()) {
             Utils.showToast(this, R.string.cannot_undo_now_message);
@@ -194,6 +201,9 @@ public class SinglePlayerGame extends Activity {
             return;
         }
 
+        //the AI was pondering on a reply to its last move, which is about to be undone
+        checkerBoard.stopPondering();
+
         //undo twice: once for AI move and once for user move
         checkerBoard.undo();
         //delay between undoing moves
@@ -212,6 +222,7 @@ public class SinglePlayerGame extends Activity {
      */
     public void redo(View view) {
         //if the checkerBoard is locked, then show a Toast instead
+        //there is never anything to redo while the AI is thinking, since the user's move cleared the undone moves
         if (checkerBoard.isLocked()) {
             Utils.showToast(this, R.string.cannot_redo_now_message);
             return;
@@ -223,6 +234,9 @@ public class SinglePlayerGame extends Activity {
             return;
         }
 
+        //the AI was pondering on a reply to a move that will no longer be on the board
+        checkerBoard.stopPondering();
+
         //redo twice: once for AI move and once for user move
         checkerBoard.redo();
         //delay between redoing moves
@@ -237,12 +251,15 @@ public class SinglePlayerGame extends Activity {
     }
 
     /**
-     * When the Activity is paused (goes out of view), save the CheckerBoard's serialization if the game is not over.
-     * Also clear any Toasts.
+     * When the Activity is paused (goes out of view), stop the AI from thinking or pondering, and save the CheckerBoard's
+     * serialization if the game is not over. Also clear any Toasts.
      */
     @Override
     protected void onPause() {
         super.onPause();
+        //the AI starts its move or pondering again in onResume
+        checkerBoard.cancelAIMove();
+        checkerBoard.stopPondering();
         //if the game is not over, save the CheckerBoard's serialization to SharedPreferences in case the Activity is destroyed
         if (!checkerBoard.isGameFinished()) {
             DataAccessor.setLastSinglePlayerGameData(checkerBoard.getExistingStateSerialization());
@@ -250,4 +267,22 @@ public class SinglePlayerGame extends Activity {
         }
         Utils.clearToasts();
     }
+
+    /**
+     * When the Activity is resumed, let the AI continue its move or pondering if it was stopped in onPause.
+     */
+    @Override
+    protected void onResume() {
+        super.onResume();
+        checkerBoard.resumeAIMove();
+    }
+
+    /**
+     * When the Activity is destroyed, stop the AI's worker Thread.
+     */
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        checkerBoard.shutdownAI();
+    }
 }
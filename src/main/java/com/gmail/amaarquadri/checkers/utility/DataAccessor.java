@@ -5,6 +5,7 @@ import android.app.Application;
 import android.content.SharedPreferences;
 import android.preference.PreferenceManager;
 
+import com.gmail.amaarquadri.checkers.engine.GameRules;
 import com.gmail.amaarquadri.checkers.logic.CheckerBoard;
 import com.gmail.amaarquadri.checkers.ui.SinglePlayerGame;
 
@@ -253,6 +254,16 @@ public class DataAccessor extends Application {
         return isKillAfterKingingEnabled;
     }
 
+    /**
+     * Returns a snapshot of the rules of the game. The snapshot will not change if the settings are changed later,
+     * so it should be taken once when a game starts and then passed to everything that needs it.
+     *
+     * @return The GameRules that are currently enabled.
+     */
+    public static GameRules getGameRules() {
+        return GameRules.of(areFlyingKingsEnabled, isButterflyKillingEnabled, isKillAfterKingingEnabled);
+    }
+
     /**
      * Applies the changes that were pushed to the SharedPreferences.Editor to the actual SharedPreferences asynchronously.
      */